@@ -0,0 +1,50 @@
+package com.example.app.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.app.controller.AssignmentFormParser;
+import com.example.app.dto.AssignmentRequest;
+
+/**
+ * assignShifts に届く assignments[n][...] パラメータの解析。フォームの大きさは社員数ではなく職場数で決まる。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AssignmentFormParserBenchmark {
+    @Param({"10", "250", "1000"})
+    private int workplaces;
+
+    private final AssignmentFormParser parser = new AssignmentFormParser();
+    private Map<String, List<String>> params;
+
+    @Setup
+    public void setUp() {
+        params = new LinkedHashMap<>();
+        params.put("workDate", List.of(SyntheticRoster.WORK_DATE));
+        for (int i = 0; i < workplaces; i++) {
+            String prefix = "assignments[" + i + "]";
+            params.put(prefix + "[workplaceId]", List.of(String.valueOf(i + 1)));
+            params.put(prefix + "[am][count]", List.of(String.valueOf(i % 5)));
+            params.put(prefix + "[pm][count]", List.of(String.valueOf((i + 2) % 5)));
+            params.put(prefix + "[tasks][]", List.of(String.valueOf(i % 10 + 1), String.valueOf((i + 3) % 10 + 1)));
+        }
+    }
+
+    @Benchmark
+    public AssignmentRequest parse() {
+        return parser.parse(params);
+    }
+}
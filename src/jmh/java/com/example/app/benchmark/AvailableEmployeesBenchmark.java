@@ -0,0 +1,47 @@
+package com.example.app.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.app.repository.PartTimeEmployeeRepository;
+import com.example.app.repository.PreferredShiftRepository;
+import com.example.app.service.HeadcountAggregator;
+import com.example.app.service.ShiftService;
+
+/**
+ * ShiftService.getAvailableEmployees。リポジトリはメモリ上の一覧を返すだけなので、DB を除いた突き合わせと集計の時間になる。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AvailableEmployeesBenchmark {
+    @Param({"100", "10000", "100000"})
+    private int employees;
+
+    private ShiftService shiftService;
+
+    @Setup
+    public void setUp() {
+        SyntheticRoster roster = new SyntheticRoster(employees);
+        shiftService = new ShiftService();
+        SyntheticRoster.inject(shiftService, "employeeRepository", SyntheticRoster.repository(
+                PartTimeEmployeeRepository.class, Map.of("findAll", roster.employees)));
+        SyntheticRoster.inject(shiftService, "preferredShiftRepository", SyntheticRoster.repository(
+                PreferredShiftRepository.class, Map.of("findByDayOfWeek", roster.shifts)));
+        SyntheticRoster.inject(shiftService, "headcountAggregator", new HeadcountAggregator());
+    }
+
+    @Benchmark
+    public Map<String, Object> getAvailableEmployees() {
+        return shiftService.getAvailableEmployees(SyntheticRoster.WORK_DATE);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.app.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+import com.example.app.service.CompactRoster;
+import com.example.app.service.Headcount;
+import com.example.app.service.HeadcountAggregator;
+
+/**
+ * 出勤希望一覧・シフト割り当て画面の人数集計（ShiftController から呼ばれる HeadcountAggregator）。
+ * 割り当てバイト数は -Pjmh.gc（gc プロファイラの gc.alloc.rate.norm）で、置き換え前の stream 集計と比べる。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HeadcountBenchmark {
+    @Param({"100", "10000", "100000"})
+    private int employees;
+
+    private final HeadcountAggregator aggregator = new HeadcountAggregator();
+    private SyntheticRoster roster;
+    private CompactRoster compact;
+
+    @Setup
+    public void setUp() {
+        roster = new SyntheticRoster(employees);
+        compact = CompactRoster.of(roster.employeesById, roster.shifts);
+    }
+
+    @Benchmark
+    public Headcount aggregate() {
+        return aggregator.aggregate(roster.shifts, roster.employeesById);
+    }
+
+    // 列指向の名簿から数える（画面で使う経路）
+    @Benchmark
+    public Headcount aggregateCompact() {
+        return aggregator.aggregate(compact, SyntheticRoster.DAY);
+    }
+
+    // 置き換え前の ShiftController の集計（5本の stream）。比較用
+    @Benchmark
+    public Map<String, Long> streamCounts() {
+        Map<Long, PartTimeEmployee> employees = roster.employeesById;
+        Map<String, Long> employeeCounts = new HashMap<>();
+        employeeCounts.put("amTotal", roster.shifts.stream()
+                .filter(shift -> shift.getTimeSlot() == PreferredShift.TimeSlot.AM)
+                .map(PreferredShift::getEmployeeId)
+                .filter(employees::containsKey)
+                .distinct()
+                .count());
+        employeeCounts.put("pmTotal", roster.shifts.stream()
+                .filter(shift -> shift.getTimeSlot() == PreferredShift.TimeSlot.PM)
+                .map(PreferredShift::getEmployeeId)
+                .filter(employees::containsKey)
+                .distinct()
+                .count());
+        for (PartTimeEmployee.SkillLevel skill : PartTimeEmployee.SkillLevel.values()) {
+            employeeCounts.put(skill.name().toLowerCase(), roster.shifts.stream()
+                    .map(shift -> employees.get(shift.getEmployeeId()))
+                    .filter(employee -> employee != null && employee.getSkillLevel() == skill)
+                    .distinct()
+                    .count());
+        }
+        return employeeCounts;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.app.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.engine.jdbc.spi.SqlStatementLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+/**
+ * シフト割り当て POST 1回分のログ出力にかかる時間を、既定の設定と prod プロファイルで比べる。
+ * logback-spring.xml と application(-prod).properties のログレベルをそのまま読み込み、
+ * リクエスト中に出るログ（Spring MVC の DEBUG、Thymeleaf の TRACE、show-sql の SQL、アプリの INFO/DEBUG）を再現する。
+ * コンソール出力は build/tmp/jmh-logging/console.log に向ける。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class LoggingBenchmark {
+    private static final String[] SQL = {
+            "select pte1_0.id,pte1_0.age,pte1_0.birthdate,pte1_0.email,pte1_0.gender,pte1_0.name_hiragana,"
+                    + "pte1_0.name_kanji,pte1_0.phone,pte1_0.skill_level from part_time_employees pte1_0",
+            "select w1_0.id,w1_0.name from workplaces w1_0",
+            "delete from shift_assignments where work_date=?",
+            "insert into shift_assignments (work_date, workplace_id, task_id, time_slot, required_count, employee_id) "
+                    + "values (?, ?, ?, ?, ?, ?)"};
+
+    @Param({"default", "prod"})
+    private String profile;
+
+    private PrintStream originalOut;
+    private PrintStream console;
+    private LoggingSystem loggingSystem;
+    private SqlStatementLogger sqlLogger;
+
+    private final Logger dispatcher = LoggerFactory.getLogger("org.springframework.web.servlet.DispatcherServlet");
+    private final Logger templateEngine = LoggerFactory.getLogger("org.thymeleaf.TemplateEngine");
+    private final Logger controller = LoggerFactory.getLogger("com.example.app.controller.ShiftController");
+    private final Logger assignment = LoggerFactory.getLogger("com.example.app.service.ShiftAssignmentService");
+    private final Logger queryCount = LoggerFactory.getLogger("com.example.app.config.QueryCountFilter");
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path dir = Files.createDirectories(Path.of("build", "tmp", "jmh-logging"));
+        originalOut = System.out;
+        console = new PrintStream(new BufferedOutputStream(
+                new FileOutputStream(dir.resolve("console-" + profile + ".log").toFile())), true);
+        System.setOut(console);
+
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        StandardEnvironment environment = new StandardEnvironment();
+        if (!profile.equals("default")) {
+            environment.setActiveProfiles(profile);
+            properties.putAll(PropertiesLoaderUtils.loadProperties(
+                    new ClassPathResource("application-" + profile + ".properties")));
+        }
+        loggingSystem = LoggingSystem.get(getClass().getClassLoader());
+        loggingSystem.beforeInitialize();
+        loggingSystem.initialize(new LoggingInitializationContext(environment), "classpath:logback-spring.xml", null);
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith("logging.level.")) {
+                String logger = name.substring("logging.level.".length());
+                loggingSystem.setLogLevel(logger.equals("root") ? null : logger,
+                        LogLevel.valueOf(properties.getProperty(name).trim().toUpperCase()));
+            }
+        }
+        sqlLogger = new SqlStatementLogger(
+                Boolean.parseBoolean(properties.getProperty("spring.jpa.show-sql", "false")),
+                Boolean.parseBoolean(properties.getProperty("spring.jpa.properties.hibernate.format_sql", "false")),
+                false, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loggingSystem.cleanUp();
+        loggingSystem.getShutdownHandler().run();
+        System.setOut(originalOut);
+        console.close();
+    }
+
+    @Benchmark
+    public void assignRequest() {
+        dispatcher.debug("POST \"/admin/shifts/assign\", parameters={masked}");
+        dispatcher.debug("Mapped to com.example.app.controller.ShiftController#assignShifts(String, MultiValueMap, Model)");
+        controller.info("Assigning shifts for workDate: {}", SyntheticRoster.WORK_DATE);
+        for (String sql : SQL) {
+            sqlLogger.logStatement(sql);
+        }
+        assignment.info("Assigned shifts for {}: {} workplaces, {} employees in {} us",
+                SyntheticRoster.WORK_DATE, 8, 120, 350);
+        for (int i = 0; i < 12; i++) {
+            templateEngine.trace("[THYMELEAF][{}] Processing template \"{}\" fragment {}",
+                    Thread.currentThread().getName(), "employees/shift_assignment_result", i);
+        }
+        queryCount.debug("{} {} issued {} queries including view rendering", "POST", "/admin/shifts/assign", 4);
+        dispatcher.debug("Completed 200 OK");
+    }
+}
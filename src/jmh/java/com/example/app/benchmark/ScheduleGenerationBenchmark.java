@@ -0,0 +1,115 @@
+package com.example.app.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.app.dto.ScheduleGenerationResult;
+import com.example.app.entity.PreferredShift;
+import com.example.app.entity.Workplace;
+import com.example.app.repository.PartTimeEmployeeRepository;
+import com.example.app.repository.PreferredShiftRepository;
+import com.example.app.repository.ShiftAssignmentRepository;
+import com.example.app.repository.TaskRepository;
+import com.example.app.repository.WorkplaceRepository;
+import com.example.app.service.AvailabilityIndex;
+import com.example.app.service.RosterSnapshotService;
+import com.example.app.service.ScheduleGenerationService;
+import com.example.app.service.ShiftAssignmentService;
+import com.example.app.service.WorkloadHistory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * ScheduleGenerationService.generate（保存なし）で1週間・1か月分を生成する。
+ * parallelism=1 が日ごとに順に解いた場合、0 がアプリの既定（コア数）のスレッド数で、2つの比が並列化による短縮になる。
+ * 名簿・索引はセットアップで読み込み済みで、公平化の窓と勤務日数の上限は使わないため、日ごとの解く時間だけを比べる。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ScheduleGenerationBenchmark {
+    @Param({"1000", "10000"})
+    private int employees;
+
+    @Param({"7", "30"})
+    private int days;
+
+    @Param({"1", "0"})
+    private int parallelism;
+
+    private static final int WORKPLACES = 50;
+
+    private ScheduleGenerationService service;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Map<Long, Map<String, Object>> formAssignments;
+
+    @Setup
+    public void setUp() {
+        SyntheticRoster roster = new SyntheticRoster(employees);
+        // 月曜の希望を全曜日に写す
+        List<PreferredShift> shifts = new ArrayList<>(roster.shifts.size() * PreferredShift.DayOfWeek.values().length);
+        for (PreferredShift.DayOfWeek day : PreferredShift.DayOfWeek.values()) {
+            for (PreferredShift monday : roster.shifts) {
+                PreferredShift shift = new PreferredShift();
+                shift.setEmployeeId(monday.getEmployeeId());
+                shift.setDayOfWeek(day);
+                shift.setTimeSlot(monday.getTimeSlot());
+                shifts.add(shift);
+            }
+        }
+        int[] perSlot = roster.demand(WORKPLACES * 2);
+        List<Workplace> workplaces = new ArrayList<>(WORKPLACES);
+        formAssignments = new HashMap<>();
+        for (int w = 0; w < WORKPLACES; w++) {
+            Workplace workplace = new Workplace();
+            workplace.setId(w + 1L);
+            workplace.setName("職場" + (w + 1));
+            workplaces.add(workplace);
+            Map<String, Object> data = new HashMap<>();
+            data.put("am_count", perSlot[2 * w]);
+            data.put("pm_count", perSlot[2 * w + 1]);
+            data.put("tasks", List.of());
+            formAssignments.put(workplace.getId(), data);
+        }
+
+        PlatformTransactionManager transactionManager = SyntheticRoster.transactionManager();
+        RosterSnapshotService rosterSnapshotService = new RosterSnapshotService(
+                SyntheticRoster.repository(PartTimeEmployeeRepository.class, Map.of("findAll", roster.employees)),
+                SyntheticRoster.repository(WorkplaceRepository.class, Map.of("findAll", workplaces)),
+                SyntheticRoster.repository(TaskRepository.class, Map.of("findAll", List.of())),
+                Duration.ofDays(1), transactionManager);
+        AvailabilityIndex availabilityIndex = new AvailabilityIndex(
+                SyntheticRoster.repository(PreferredShiftRepository.class, Map.of("findAll", shifts)),
+                rosterSnapshotService, transactionManager);
+        WorkloadHistory workloadHistory = new WorkloadHistory(
+                SyntheticRoster.repository(ShiftAssignmentRepository.class, Map.of()), transactionManager, 0);
+        service = new ScheduleGenerationService(new ShiftAssignmentService(0.5, new SimpleMeterRegistry()),
+                null, rosterSnapshotService, availabilityIndex, workloadHistory, 62, parallelism);
+
+        startDate = LocalDate.parse(SyntheticRoster.WORK_DATE);
+        endDate = startDate.plusDays(days - 1L);
+        // 名簿と列指向の名簿を読み込んでおく
+        availabilityIndex.compactRoster();
+    }
+
+    @Benchmark
+    public ScheduleGenerationResult generate() {
+        return service.generate(startDate, endDate, formAssignments, Map.of(), 0, false);
+    }
+}
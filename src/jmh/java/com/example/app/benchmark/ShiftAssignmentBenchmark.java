@@ -0,0 +1,114 @@
+package com.example.app.benchmark;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.app.dto.ShiftAssignmentDto;
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+import com.example.app.service.CompactRoster;
+import com.example.app.service.ShiftAssignmentEngine;
+import com.example.app.service.ShiftAssignmentService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 割り当てアルゴリズム。solve は1つの時間帯の配席だけ、assignEmployees は候補者選びと DTO 組み立てを含む1日分。
+ * assignEmployeesFair は直近の勤務コマ数で候補者を並べ替える分を含む。
+ * 列指向の名簿はアプリでは索引から1回だけ作って使い回すため、作る時間は compactRoster で別に測る。
+ * 500 人 × 50 職場の solve は 200 ms に十分収まること（画面から1日分を割り当てるときの目安）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ShiftAssignmentBenchmark {
+    @Param({"100", "500", "10000", "100000"})
+    private int employees;
+
+    @Param({"50"})
+    private int workplaces;
+
+    private final ShiftAssignmentEngine engine = new ShiftAssignmentEngine(0.5);
+    private final ShiftAssignmentService service = new ShiftAssignmentService(0.5, new SimpleMeterRegistry());
+    private SyntheticRoster roster;
+    private CompactRoster compact;
+    private int[] demand;
+    private int[] candidates;
+    private byte[] skills;
+    private int[] workload;
+    private Map<Long, Map<String, Object>> formAssignments;
+    private Map<Long, String> workplaceNames;
+
+    @Setup
+    public void setUp() {
+        roster = new SyntheticRoster(employees);
+        int[] perSlot = roster.demand(workplaces * 2);
+        demand = new int[workplaces];
+        formAssignments = new HashMap<>();
+        workplaceNames = new LinkedHashMap<>();
+        for (int w = 0; w < workplaces; w++) {
+            long workplaceId = w + 1;
+            demand[w] = perSlot[2 * w];
+            Map<String, Object> data = new HashMap<>();
+            data.put("am_count", perSlot[2 * w]);
+            data.put("pm_count", perSlot[2 * w + 1]);
+            data.put("tasks", List.of());
+            formAssignments.put(workplaceId, data);
+            workplaceNames.put(workplaceId, "職場" + workplaceId);
+        }
+
+        compact = CompactRoster.of(roster.employeesById, roster.shifts);
+
+        // 社員 ID は 1 始まりの連番なので、インデックスは ID - 1
+        skills = new byte[employees];
+        for (PartTimeEmployee employee : roster.employees) {
+            skills[(int) (employee.getId() - 1)] = ShiftAssignmentEngine.skillCode(employee.getSkillLevel());
+        }
+        // 4週間の窓（最大 56 コマ）の勤務実績
+        Random random = new Random(42);
+        workload = new int[compact.size()];
+        for (int i = 0; i < workload.length; i++) {
+            workload[i] = random.nextInt(57);
+        }
+        candidates = roster.shifts.stream()
+                .filter(s -> s.getTimeSlot() == PreferredShift.TimeSlot.AM)
+                .mapToInt(s -> (int) (s.getEmployeeId() - 1))
+                .toArray();
+    }
+
+    @Benchmark
+    public int[][] solve() {
+        return engine.solve(demand, candidates, skills);
+    }
+
+    @Benchmark
+    public Map<Long, ShiftAssignmentDto> assignEmployees() {
+        return service.assignEmployees(LocalDate.parse(SyntheticRoster.WORK_DATE), formAssignments,
+                compact, SyntheticRoster.DAY, null, roster.employeesById, workplaceNames);
+    }
+
+    @Benchmark
+    public Map<Long, ShiftAssignmentDto> assignEmployeesFair() {
+        return service.assignEmployees(LocalDate.parse(SyntheticRoster.WORK_DATE), formAssignments,
+                compact, SyntheticRoster.DAY, workload, roster.employeesById, workplaceNames);
+    }
+
+    @Benchmark
+    public CompactRoster compactRoster() {
+        return CompactRoster.of(roster.employeesById, roster.shifts);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.app.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+
+/**
+ * ベンチマーク用の架空の名簿。同じ人数なら毎回同じ内容になるよう乱数の種を固定する。
+ * 社員の 1/4 がリーダー、1/4 が新人、残りが一般で、約 6 割が各曜日の AM/PM のどちらか（または両方）を希望する。
+ */
+final class SyntheticRoster {
+    static final PreferredShift.DayOfWeek DAY = PreferredShift.DayOfWeek.MONDAY;
+    // 2025-06-02 は月曜日
+    static final String WORK_DATE = "2025-06-02";
+
+    final List<PartTimeEmployee> employees;
+    final Map<Long, PartTimeEmployee> employeesById;
+    final List<PreferredShift> shifts;
+
+    SyntheticRoster(int employeeCount) {
+        Random random = new Random(42);
+        PartTimeEmployee.SkillLevel[] skills = {
+                PartTimeEmployee.SkillLevel.LEADER, PartTimeEmployee.SkillLevel.GENERAL,
+                PartTimeEmployee.SkillLevel.GENERAL, PartTimeEmployee.SkillLevel.NEWCOMER};
+        employees = new ArrayList<>(employeeCount);
+        employeesById = new LinkedHashMap<>(employeeCount * 2);
+        shifts = new ArrayList<>(employeeCount * 2);
+        for (long id = 1; id <= employeeCount; id++) {
+            PartTimeEmployee employee = new PartTimeEmployee();
+            employee.setId(id);
+            employee.setNameKanji("社員" + id);
+            employee.setSkillLevel(skills[random.nextInt(skills.length)]);
+            employees.add(employee);
+            employeesById.put(id, employee);
+            int preference = random.nextInt(10);
+            if (preference < 4) {
+                shifts.add(shift(id, PreferredShift.TimeSlot.AM));
+            }
+            if (preference >= 2 && preference < 6) {
+                shifts.add(shift(id, PreferredShift.TimeSlot.PM));
+            }
+        }
+    }
+
+    // 職場ごとの必要人数。出勤希望者の 8 割程度の席を均等に割り振る
+    int[] demand(int workplaceCount) {
+        int seats = (int) (shifts.size() * 0.4);
+        int[] demand = new int[workplaceCount];
+        for (int w = 0; w < workplaceCount; w++) {
+            demand[w] = seats / workplaceCount + (w < seats % workplaceCount ? 1 : 0);
+        }
+        return demand;
+    }
+
+    private static PreferredShift shift(Long employeeId, PreferredShift.TimeSlot timeSlot) {
+        PreferredShift shift = new PreferredShift();
+        shift.setEmployeeId(employeeId);
+        shift.setDayOfWeek(DAY);
+        shift.setTimeSlot(timeSlot);
+        return shift;
+    }
+
+    /**
+     * リポジトリの代わりに、指定したメソッド名だけ固定の値を返すプロキシを作る。
+     * Spring の DI を起動せずにサービス単体を計測するためのもの。
+     */
+    static <T> T repository(Class<T> type, Map<String, Object> results) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (p, method, args) -> {
+            if (results.containsKey(method.getName())) {
+                return results.get(method.getName());
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return method.getName().equals("equals") ? p == args[0] : method.invoke(results, args);
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+        return type.cast(proxy);
+    }
+
+    // TransactionTemplate を使うサービス用。トランザクションは張らずにコールバックをそのまま実行させる
+    static PlatformTransactionManager transactionManager() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+
+    // フィールドインジェクションのサービスに依存を差し込む
+    static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.app.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.linkbuilder.StandardLinkBuilder;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import com.example.app.dto.ShiftAssignmentDto;
+import com.example.app.dto.ShiftAssignmentRow;
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.Workplace;
+import com.example.app.service.Headcount;
+
+/**
+ * シフト割り当て結果画面の描画。cache=false は開発時の設定（毎回テンプレートを解析）、
+ * cache=true は prod プロファイルの設定（解析済みテンプレートのキャッシュ + SpEL コンパイラ）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TemplateRenderBenchmark {
+    private static final String TEMPLATE = "employees/shift_assignment_result";
+
+    @Param({"100", "500"})
+    private int workplaces;
+
+    @Param({"false", "true"})
+    private boolean cache;
+
+    private SpringTemplateEngine engine;
+    private Context context;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(cache);
+        engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        engine.setEnableSpringELCompiler(cache);
+        // サーブレットを使わずに描画するため、@{/...} のコンテキストパスは空にする
+        engine.setLinkBuilder(new StandardLinkBuilder() {
+            @Override
+            protected String computeContextPath(IExpressionContext context, String base, Map<String, Object> parameters) {
+                return "";
+            }
+        });
+
+        SyntheticRoster roster = new SyntheticRoster(workplaces * 6);
+        List<ShiftAssignmentRow> rows = new ArrayList<>(workplaces);
+        for (int w = 0; w < workplaces; w++) {
+            Workplace workplace = new Workplace();
+            workplace.setId((long) w + 1);
+            workplace.setName("職場" + (w + 1));
+            ShiftAssignmentDto dto = new ShiftAssignmentDto();
+            dto.setAmCount(3);
+            dto.setPmCount(3);
+            List<PartTimeEmployee> employees = roster.employees.subList(w * 6, w * 6 + 6);
+            dto.setAmEmployees(new ArrayList<>(employees.subList(0, 3)));
+            dto.setPmEmployees(new ArrayList<>(employees.subList(3, 6)));
+            if (w % 10 == 0) {
+                dto.getWarnings().add("AM: リーダーが割り当てられていません");
+            }
+            rows.add(ShiftAssignmentRow.of(workplace, dto));
+        }
+        context = new Context();
+        context.setVariable("rows", rows);
+        context.setVariable("employeeCounts", Headcount.EMPTY);
+        context.setVariable("message", rows.size() + "件のシフトを保存しました。");
+    }
+
+    @Benchmark
+    public String render() {
+        return engine.process(TEMPLATE, context);
+    }
+}
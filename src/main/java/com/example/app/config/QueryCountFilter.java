@@ -0,0 +1,218 @@
+package com.example.app.config;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * /admin/** と /api/** のリクエストごとの SQL 発行数を X-Query-Count ヘッダーで返し、
+ * しきい値を超えたら N+1 の疑いとして警告ログを出す。
+ * ヘッダーは応答の本文を書き始める直前（コミット前）に、その時点までの発行数で付ける。
+ * ビュー描画分を含めた発行数は、URI パターンごとに http.server.requests.queries として記録する。
+ */
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Query-Count";
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final int warnThreshold;
+    private final MeterRegistry meterRegistry;
+
+    public QueryCountFilter(@Value("${app.query-count.warn-threshold:10}") int warnThreshold,
+            MeterRegistry meterRegistry) {
+        this.warnThreshold = warnThreshold;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/admin/") && !path.startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCounter counter = QueryCounter.start();
+        CountHeaderResponse wrapped = new CountHeaderResponse(response, counter);
+        try {
+            chain.doFilter(request, wrapped);
+            // 本文のない応答（304・リダイレクトなど）はここで付ける
+            wrapped.writeHeader();
+        } finally {
+            QueryCounter.stop();
+            record(request, counter.get());
+        }
+    }
+
+    private void record(HttpServletRequest request, int queries) {
+        if (queries > warnThreshold) {
+            logger.warn("Possible N+1: {} {} issued {} queries (threshold {})",
+                    request.getMethod(), request.getRequestURI(), queries, warnThreshold);
+        }
+        logger.debug("{} {} issued {} queries including view rendering",
+                request.getMethod(), request.getRequestURI(), queries);
+        // 実際の URI ではなくパターンをタグにして、パス変数ごとに系列が増えないようにする
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("1リクエストで発行した SQL の数")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(meterRegistry)
+                .record(queries);
+    }
+
+    // 本文を書き始める・フラッシュする・エラーやリダイレクトを送る直前に、一度だけヘッダーを付ける
+    private static final class CountHeaderResponse extends HttpServletResponseWrapper {
+        private final QueryCounter counter;
+        private volatile boolean headerWritten;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountHeaderResponse(HttpServletResponse response, QueryCounter counter) {
+            super(response);
+            this.counter = counter;
+        }
+
+        void writeHeader() {
+            if (!headerWritten) {
+                headerWritten = true;
+                if (!isCommitted()) {
+                    setHeader(HEADER, String.valueOf(counter.get()));
+                }
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new HeaderOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new HeaderWriter(super.getWriter()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+
+        private final class HeaderOutputStream extends ServletOutputStream {
+            private final ServletOutputStream delegate;
+
+            HeaderOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                writeHeader();
+                delegate.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writeHeader();
+                delegate.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writeHeader();
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writeHeader();
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                delegate.setWriteListener(listener);
+            }
+        }
+
+        private final class HeaderWriter extends Writer {
+            private final PrintWriter delegate;
+
+            HeaderWriter(PrintWriter delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(char[] buf, int off, int len) {
+                writeHeader();
+                delegate.write(buf, off, len);
+            }
+
+            @Override
+            public void write(String str, int off, int len) {
+                writeHeader();
+                delegate.write(str, off, len);
+            }
+
+            @Override
+            public void flush() {
+                writeHeader();
+                delegate.flush();
+            }
+
+            @Override
+            public void close() {
+                writeHeader();
+                delegate.close();
+            }
+        }
+    }
+}
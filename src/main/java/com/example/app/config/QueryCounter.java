@@ -0,0 +1,39 @@
+package com.example.app.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 1リクエストで実行した SQL 文の数。{@link QueryCountFilter} がリクエストの始めにスレッドへ結び付け、
+ * {@link QueryCountingDataSource} が文を実行するたびに数える（JPA も JdbcTemplate のバッチも同じ経路を通る）。
+ */
+public final class QueryCounter {
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+
+    // 応答ヘッダーは別スレッド（非同期の書き出し）から読むこともある
+    private final AtomicInteger count = new AtomicInteger();
+
+    private QueryCounter() {
+    }
+
+    static QueryCounter start() {
+        QueryCounter counter = new QueryCounter();
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    // リクエストの外（起動時のマイグレーションやスケジュール実行）では数えない
+    static void increment() {
+        QueryCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.count.incrementAndGet();
+        }
+    }
+
+    public int get() {
+        return count.get();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.app.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 文の実行（execute / executeQuery / executeUpdate / executeBatch など）を {@link QueryCounter} に数える DataSource。
+ * バッチは DB との往復1回なので executeBatch を1文と数える。
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    public QueryCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, super.getConnection(username, password));
+    }
+
+    private static <T> T proxy(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(),
+                new Class<?>[] {type}, new CountingHandler(target)));
+    }
+
+    private static final class CountingHandler implements InvocationHandler {
+        private final Object target;
+
+        private CountingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (target instanceof Statement && method.getName().startsWith("execute")) {
+                QueryCounter.increment();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            // createStatement / prepareStatement / prepareCall で作った文も数えられるように包む
+            if (target instanceof Connection && result instanceof Statement statement
+                    && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return proxy(statementType(method), statement);
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Class<Statement> statementType(Method method) {
+            return (Class<Statement>) method.getReturnType();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.app.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * アプリの DataSource（HikariCP）を {@link QueryCountingDataSource} で包む。
+ * Hibernate を通らない JdbcTemplate の SQL もリクエストごとの発行数に入れるため、JDBC の手前で数える。
+ */
+@Component
+public class QueryCountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource)) {
+            return new QueryCountingDataSource(dataSource);
+        }
+        return bean;
+    }
+}
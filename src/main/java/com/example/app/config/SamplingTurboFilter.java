@@ -0,0 +1,98 @@
+package com.example.app.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * パッケージ（ロガー名の前方一致）ごとに、指定レベル以下のログを N 件に 1 件だけ通す。
+ * WARN 以上などしきい値より重いログは常に通す。
+ *
+ * <pre>
+ * &lt;turboFilter class="com.example.app.config.SamplingTurboFilter"&gt;
+ *     &lt;level&gt;INFO&lt;/level&gt;
+ *     &lt;sample&gt;com.example.app.service.ShiftAssignmentService=20&lt;/sample&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    private static final Sampler NONE = new Sampler(1);
+
+    private final List<String> prefixes = new ArrayList<>();
+    private final List<Sampler> samplers = new ArrayList<>();
+    // ロガー名 → 最長一致した Sampler。ログ出力のたびに前方一致を探し直さないためのキャッシュ
+    private final ConcurrentHashMap<String, Sampler> byLogger = new ConcurrentHashMap<>();
+    private Level level = Level.INFO;
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+
+    // "ロガー名の接頭辞=N" の形式。複数指定できる
+    public void addSample(String sample) {
+        int eq = sample.lastIndexOf('=');
+        if (eq <= 0) {
+            addError("Invalid sample (expected prefix=rate): " + sample);
+            return;
+        }
+        try {
+            int rate = Integer.parseInt(sample.substring(eq + 1).trim());
+            if (rate < 1) {
+                throw new NumberFormatException("rate must be positive");
+            }
+            prefixes.add(sample.substring(0, eq).trim());
+            samplers.add(new Sampler(rate));
+        } catch (NumberFormatException e) {
+            addError("Invalid sample rate: " + sample, e);
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+            Throwable t) {
+        // isDebugEnabled() などのレベル判定（format が null）は数えない
+        if (!isStarted() || format == null || level.toInt() > this.level.toInt()) {
+            return FilterReply.NEUTRAL;
+        }
+        // ターボフィルターはロガーのレベル判定より前に呼ばれる。出力されないログで枠を使わないよう、ここで除く
+        if (!logger.isEnabledFor(level)) {
+            return FilterReply.NEUTRAL;
+        }
+        Sampler sampler = byLogger.computeIfAbsent(logger.getName(), this::samplerFor);
+        return sampler == NONE || sampler.accept() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Sampler samplerFor(String loggerName) {
+        Sampler match = NONE;
+        int matchLength = -1;
+        for (int i = 0; i < prefixes.size(); i++) {
+            String prefix = prefixes.get(i);
+            if (prefix.length() > matchLength && (loggerName.equals(prefix) || loggerName.startsWith(prefix + "."))) {
+                match = samplers.get(i);
+                matchLength = prefix.length();
+            }
+        }
+        return match;
+    }
+
+    private static final class Sampler {
+        private final int rate;
+        private final AtomicLong counter = new AtomicLong();
+
+        private Sampler(int rate) {
+            this.rate = rate;
+        }
+
+        private boolean accept() {
+            return rate == 1 || counter.getAndIncrement() % rate == 0;
+        }
+    }
+}
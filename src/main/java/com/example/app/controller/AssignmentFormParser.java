@@ -0,0 +1,147 @@
+package com.example.app.controller;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Component;
+
+import com.example.app.dto.AssignmentRequest;
+import com.example.app.entity.PreferredShift;
+
+/**
+ * assignments[n][workplaceId] / assignments[n][am][count] / assignments[n][tasks][] 形式の
+ * POST パラメータを1回の走査で解析する。キーは正規表現を使わず先頭から読み進め、
+ * インデックスごとに値を溜めてから組み立てるため、パラメータの順序に依存しない。
+ */
+@Component
+public class AssignmentFormParser {
+    private static final String PREFIX = "assignments[";
+    private static final String WORKPLACE_ID = "workplaceId]";
+    private static final String TASKS = "tasks][]";
+    private static final String COUNT = "][count]";
+    // int に収まる桁数まで
+    private static final int MAX_INDEX_DIGITS = 9;
+
+    public AssignmentRequest parse(Map<String, List<String>> params) {
+        Map<Integer, Entry> entries = new TreeMap<>();
+        List<String> errors = new ArrayList<>();
+
+        for (Map.Entry<String, List<String>> param : params.entrySet()) {
+            String key = param.getKey();
+            List<String> values = param.getValue();
+            if (key == null || !key.startsWith(PREFIX) || values == null || values.isEmpty()) {
+                continue;
+            }
+            int pos = PREFIX.length();
+            int index = 0;
+            int digits = 0;
+            while (pos < key.length() && digits <= MAX_INDEX_DIGITS) {
+                char c = key.charAt(pos);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                index = index * 10 + (c - '0');
+                pos++;
+                digits++;
+            }
+            if (digits == 0 || digits > MAX_INDEX_DIGITS || !key.startsWith("][", pos)) {
+                continue;
+            }
+            pos += 2;
+
+            if (matchesTail(key, pos, WORKPLACE_ID)) {
+                String value = values.get(0);
+                Entry entry = entries.computeIfAbsent(index, Entry::new);
+                entry.workplaceIdSent = true;
+                try {
+                    entry.workplaceId = Long.parseLong(value.trim());
+                } catch (NumberFormatException e) {
+                    errors.add("職場IDが無効です: " + value);
+                }
+            } else if (matchesTail(key, pos, TASKS)) {
+                Entry entry = entries.computeIfAbsent(index, Entry::new);
+                for (String value : values) {
+                    if (value.isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        entry.taskIds.add(Long.parseLong(value.trim()));
+                    } catch (NumberFormatException e) {
+                        errors.add("タスクIDが無効です: " + value);
+                    }
+                }
+            } else {
+                int slotEnd = key.indexOf(']', pos);
+                if (slotEnd <= pos || !matchesTail(key, slotEnd, COUNT)) {
+                    continue;
+                }
+                // 未知の時間帯は旧実装と同じく読み飛ばす
+                PreferredShift.TimeSlot timeSlot = timeSlot(key, pos, slotEnd);
+                if (timeSlot == null) {
+                    continue;
+                }
+                String value = values.get(0);
+                Entry entry = entries.computeIfAbsent(index, Entry::new);
+                try {
+                    int count = value.isEmpty() ? 0 : Integer.parseInt(value.trim());
+                    entry.counts[timeSlot.ordinal()] = count;
+                } catch (NumberFormatException e) {
+                    errors.add("人数の入力値が無効です: " + value);
+                }
+            }
+        }
+
+        List<AssignmentRequest.WorkplaceAssignment> workplaces = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            if (entry.workplaceId == null) {
+                if (!entry.workplaceIdSent) {
+                    errors.add("無効なインデックス: " + entry.index);
+                }
+                continue;
+            }
+            for (int s = 0; s < entry.counts.length; s++) {
+                if (entry.counts[s] < 0) {
+                    errors.add("人数は0以上でなければなりません: " + entry.counts[s]
+                            + " (職場ID: " + entry.workplaceId + ")");
+                    entry.counts[s] = 0;
+                }
+            }
+            workplaces.add(new AssignmentRequest.WorkplaceAssignment(entry.index, entry.workplaceId,
+                    entry.counts[PreferredShift.TimeSlot.AM.ordinal()],
+                    entry.counts[PreferredShift.TimeSlot.PM.ordinal()],
+                    new ArrayList<>(entry.taskIds)));
+        }
+        return new AssignmentRequest(workplaces, errors);
+    }
+
+    private static boolean matchesTail(String key, int pos, String tail) {
+        return key.length() - pos == tail.length() && key.startsWith(tail, pos);
+    }
+
+    // "am" / "PM" などを大文字小文字を区別せずに時間帯へ変換する
+    private static PreferredShift.TimeSlot timeSlot(String key, int start, int end) {
+        for (PreferredShift.TimeSlot slot : PreferredShift.TimeSlot.values()) {
+            String name = slot.name();
+            if (end - start == name.length() && key.regionMatches(true, start, name, 0, name.length())) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    private static final class Entry {
+        private final int index;
+        private Long workplaceId;
+        private boolean workplaceIdSent;
+        private final int[] counts = new int[PreferredShift.TimeSlot.values().length];
+        private final Set<Long> taskIds = new LinkedHashSet<>();
+
+        private Entry(int index) {
+            this.index = index;
+        }
+    }
+}
@@ -1,50 +1,76 @@
 package com.example.app.controller;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.example.app.dto.EmployeeSearch;
+import com.example.app.dto.EmployeeSlice;
+import com.example.app.dto.ImportResult;
 import com.example.app.entity.PartTimeEmployee;
+import com.example.app.service.BulkImportService;
 import com.example.app.service.PartTimeEmployeeService;
 
 @Controller
 @RequestMapping("/admin/employees")
 public class PartTimeEmployeeController {
     private static final Logger logger = LoggerFactory.getLogger(PartTimeEmployeeController.class);
+    private static final int PAGE_SIZE = 10;
+    private static final Set<String> IMPORT_TYPES = Set.of("employees", "preferred-shifts");
+    // 画面で選べる文字コードだけを受け付ける（任意の名前を Charset.forName に渡さない）
+    private static final Map<String, Charset> IMPORT_ENCODINGS = Map.of(
+            "UTF-8", StandardCharsets.UTF_8,
+            "Windows-31J", Charset.forName("Windows-31J"));
     private final PartTimeEmployeeService service;
+    private final BulkImportService bulkImportService;
 
-    public PartTimeEmployeeController(PartTimeEmployeeService service) {
+    public PartTimeEmployeeController(PartTimeEmployeeService service, BulkImportService bulkImportService) {
         this.service = service;
+        this.bulkImportService = bulkImportService;
     }
 
+    // キーセット方式のページング。after / before は表示中のページの末尾 / 先頭の id
     @GetMapping({"", "/"})
-    public String list(@RequestParam(defaultValue = "0") int page, Model model) {
-        logger.info("Listing employees, page: {}, size: 10", page);
+    public String list(@ModelAttribute("search") EmployeeSearch search,
+                       @RequestParam(required = false) Long after,
+                       @RequestParam(required = false) Long before,
+                       Model model) {
+        logger.info("Listing employees, after: {}, before: {}, skillLevel: {}, name: {}",
+                after, before, search.getSkillLevel(), search.getName());
         try {
-            Pageable pageable = PageRequest.of(page, 10);
-            Page<PartTimeEmployee> employeePage = service.findAll(pageable);
-            model.addAttribute("employees", employeePage.getContent());
-            model.addAttribute("page", employeePage);
-            model.addAttribute("currentPage", employeePage.getNumber());
-            model.addAttribute("totalPages", employeePage.getTotalPages());
-            model.addAttribute("totalItems", employeePage.getTotalElements());
-            logger.debug("Employees count: {}, Total pages: {}", employeePage.getContent().size(), employeePage.getTotalPages());
+            EmployeeSlice slice = service.findSlice(search, after, before, PAGE_SIZE);
+            model.addAttribute("employees", slice.getContent());
+            model.addAttribute("slice", slice);
+            model.addAttribute("totalItems", service.count(search));
+            model.addAttribute("skillLevels", PartTimeEmployee.SkillLevel.values());
+            logger.debug("Employees count: {}, hasNext: {}", slice.getContent().size(), slice.isHasNext());
             return "employees/list";
         } catch (Exception e) {
             logger.error("Failed to load employees: {}", e.getMessage(), e);
+            model.addAttribute("employees", List.of());
+            model.addAttribute("skillLevels", PartTimeEmployee.SkillLevel.values());
             model.addAttribute("error", "社員一覧の取得に失敗しました: " + e.getMessage());
             return "employees/list";
         }
@@ -93,5 +119,47 @@ public class PartTimeEmployeeController {
         }
         return "redirect:/admin/employees";
     }
-}
 
+    @GetMapping("/import")
+    public String importForm() {
+        return "employees/import";
+    }
+
+    // type=employees は社員、type=preferred-shifts は出勤希望の CSV。encoding は UTF-8 か Windows-31J（Excel の CSV）
+    @PostMapping("/import")
+    public String importCsv(@RequestParam("type") String type,
+                            @RequestParam("file") MultipartFile file,
+                            @RequestParam(name = "encoding", defaultValue = "UTF-8") String encoding,
+                            Model model) {
+        model.addAttribute("type", type);
+        model.addAttribute("encoding", encoding);
+        List<String> errors = new ArrayList<>();
+        if (!IMPORT_TYPES.contains(type)) {
+            errors.add("登録する種類が正しくありません: " + type);
+        }
+        Charset charset = IMPORT_ENCODINGS.get(encoding);
+        if (charset == null) {
+            errors.add("文字コードは UTF-8 か Windows-31J を指定してください: " + encoding);
+        }
+        if (file.isEmpty()) {
+            errors.add("ファイルを選択してください。");
+        }
+        if (!errors.isEmpty()) {
+            model.addAttribute("error", String.join("; ", errors));
+            return "employees/import";
+        }
+        logger.info("Importing {} from {} ({} bytes, {})", type, file.getOriginalFilename(), file.getSize(), encoding);
+        try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), charset), 64 * 1024)) {
+            ImportResult result = switch (type) {
+                case "employees" -> bulkImportService.importEmployees(reader);
+                case "preferred-shifts" -> bulkImportService.importPreferredShifts(reader);
+                default -> throw new IllegalArgumentException("Unknown import type: " + type);
+            };
+            model.addAttribute("result", result);
+        } catch (IOException e) {
+            logger.warn("Failed to read import file {}: {}", file.getOriginalFilename(), e.getMessage());
+            model.addAttribute("error", "ファイルを読み込めませんでした: " + e.getMessage());
+        }
+        return "employees/import";
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.app.controller;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import com.example.app.dto.AssignmentView;
+import com.example.app.dto.AvailableEmployeeView;
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+import com.example.app.entity.ShiftAssignment;
+import com.example.app.repository.ShiftAssignmentRepository;
+import com.example.app.service.AvailabilityIndex;
+import com.example.app.service.Headcount;
+import com.example.app.service.HeadcountAggregator;
+import com.example.app.service.RosterSnapshot;
+import com.example.app.service.RosterSnapshotService;
+import com.example.app.service.ShiftPlanService;
+
+/**
+ * 出勤希望・人数集計・保存済みシフトを JSON で返す読み取り専用 API。
+ *
+ * ETag はデータの版（名簿スナップショット・希望シフト索引・保存済み計画）から、Last-Modified はそれらの最終変更時刻から作る。
+ * 版は本文を組み立てる前に読むので、ETag が実際の内容より新しい版を名乗ることはない。
+ * 変更がなければ 304 を返し、索引の参照や findByWorkDate を行わない。
+ */
+@RestController
+@RequestMapping("/api/shifts")
+public class ShiftApiController {
+    private static final Logger logger = LoggerFactory.getLogger(ShiftApiController.class);
+    // 再起動で版の番号が 0 に戻っても、以前の ETag と一致しないようにする
+    private static final String BOOT_ID = Long.toString(System.currentTimeMillis(), 36);
+
+    private final RosterSnapshotService rosterSnapshotService;
+    private final AvailabilityIndex availabilityIndex;
+    private final HeadcountAggregator headcountAggregator;
+    private final ShiftPlanService shiftPlanService;
+    private final ShiftAssignmentRepository shiftAssignmentRepository;
+
+    public ShiftApiController(RosterSnapshotService rosterSnapshotService,
+            AvailabilityIndex availabilityIndex,
+            HeadcountAggregator headcountAggregator,
+            ShiftPlanService shiftPlanService,
+            ShiftAssignmentRepository shiftAssignmentRepository) {
+        this.rosterSnapshotService = rosterSnapshotService;
+        this.availabilityIndex = availabilityIndex;
+        this.headcountAggregator = headcountAggregator;
+        this.shiftPlanService = shiftPlanService;
+        this.shiftAssignmentRepository = shiftAssignmentRepository;
+    }
+
+    // 指定日の出勤希望者（社員ごとに希望する時間帯をまとめる）と人数集計
+    @GetMapping("/availability")
+    public ResponseEntity<Map<String, Object>> availability(
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        String etag = availabilityEtag("a");
+        Instant changedAt = availabilityChangedAt();
+        if (request.checkNotModified(etag, changedAt.toEpochMilli())) {
+            return null;
+        }
+        RosterSnapshot roster = rosterSnapshotService.current();
+        List<PreferredShift> shifts = shiftsFor(date);
+        Map<Long, List<String>> slotsByEmployee = new LinkedHashMap<>();
+        for (PreferredShift shift : shifts) {
+            if (roster.getEmployees().containsKey(shift.getEmployeeId())) {
+                slotsByEmployee.computeIfAbsent(shift.getEmployeeId(), id -> new ArrayList<>(2))
+                        .add(shift.getTimeSlot().name());
+            }
+        }
+        List<AvailableEmployeeView> employees = new ArrayList<>(slotsByEmployee.size());
+        for (Map.Entry<Long, List<String>> entry : slotsByEmployee.entrySet()) {
+            PartTimeEmployee employee = roster.getEmployees().get(entry.getKey());
+            employees.add(new AvailableEmployeeView(employee.getId(), employee.getNameKanji(),
+                    employee.getSkillLevel() != null ? employee.getSkillLevel().name() : null, entry.getValue()));
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("date", date);
+        body.put("dayOfWeek", date.getDayOfWeek());
+        body.put("headcount", headcountAggregator.aggregate(shifts, roster.getEmployees()).toMap());
+        body.put("employees", employees);
+        return cached(etag, changedAt, body);
+    }
+
+    @GetMapping("/headcount")
+    public ResponseEntity<Map<String, Object>> headcount(
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        String etag = availabilityEtag("h");
+        Instant changedAt = availabilityChangedAt();
+        if (request.checkNotModified(etag, changedAt.toEpochMilli())) {
+            return null;
+        }
+        // 索引が差分で維持している人数をそのまま返す（出勤希望を走査しない）
+        Headcount headcount = headcountFor(date);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("date", date);
+        body.putAll(headcount.toMap());
+        return cached(etag, changedAt, body);
+    }
+
+    // 保存済みのシフト（shift_assignments）
+    @GetMapping("/assignments")
+    public ResponseEntity<List<AssignmentView>> assignments(
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        String etag = "\"" + BOOT_ID + "-p" + shiftPlanService.getVersion()
+                + "-r" + rosterSnapshotService.getVersion() + "\"";
+        Instant changedAt = latest(shiftPlanService.getChangedAt(), rosterSnapshotService.getChangedAt());
+        if (request.checkNotModified(etag, changedAt.toEpochMilli())) {
+            return null;
+        }
+        List<ShiftAssignment> rows = shiftAssignmentRepository.findDetailedByWorkDate(date);
+        List<AssignmentView> body = new ArrayList<>(rows.size());
+        for (ShiftAssignment row : rows) {
+            body.add(new AssignmentView(row));
+        }
+        return cached(etag, changedAt, body);
+    }
+
+    @ExceptionHandler({MethodArgumentTypeMismatchException.class, MissingServletRequestParameterException.class})
+    public ResponseEntity<ProblemDetail> handleBadRequest(Exception e) {
+        logger.debug("Bad API request: {}", e.getMessage());
+        return ResponseEntity.badRequest()
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    // 日付は URL に含まれるので、ETag は版だけで作ればよい
+    private String availabilityEtag(String resource) {
+        return "\"" + BOOT_ID + "-" + resource + availabilityIndex.getVersion()
+                + "-r" + rosterSnapshotService.getVersion() + "\"";
+    }
+
+    private Instant availabilityChangedAt() {
+        return latest(availabilityIndex.getChangedAt(), rosterSnapshotService.getChangedAt());
+    }
+
+    // 出勤希望のない曜日（日曜日）は空
+    private List<PreferredShift> shiftsFor(LocalDate date) {
+        try {
+            return availabilityIndex.shiftsFor(PreferredShift.DayOfWeek.valueOf(date.getDayOfWeek().name()));
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    private Headcount headcountFor(LocalDate date) {
+        try {
+            return availabilityIndex.headcount(PreferredShift.DayOfWeek.valueOf(date.getDayOfWeek().name()));
+        } catch (IllegalArgumentException e) {
+            return Headcount.EMPTY;
+        }
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    // 毎回再検証させる（no-cache）。変更がなければ 304 になる
+    private static <T> ResponseEntity<T> cached(String etag, Instant changedAt, T body) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .lastModified(changedAt)
+                .body(body);
+    }
+}
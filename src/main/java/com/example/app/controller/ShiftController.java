@@ -1,37 +1,56 @@
 package com.example.app.controller;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.example.app.dto.AssignmentRequest;
+import com.example.app.dto.PreferredShiftRow;
+import com.example.app.dto.ScenarioComparison;
+import com.example.app.dto.ScheduleGenerationResult;
 import com.example.app.dto.ShiftAssignmentDto;
+import com.example.app.dto.ShiftAssignmentRow;
 import com.example.app.entity.PartTimeEmployee;
 import com.example.app.entity.PreferredShift;
 import com.example.app.entity.Task;
 import com.example.app.entity.Workplace;
-import com.example.app.repository.PartTimeEmployeeRepository;
-import com.example.app.repository.PreferredShiftRepository;
-import com.example.app.repository.TaskRepository;
-import com.example.app.repository.WorkplaceRepository;
+import com.example.app.service.DayAvailability;
+import com.example.app.service.Headcount;
+import com.example.app.service.RosterSnapshot;
+import com.example.app.service.ScheduleGenerationService;
 import com.example.app.service.ShiftAssignmentService;
+import com.example.app.service.ShiftDraft;
+import com.example.app.service.ShiftDraftService;
+import com.example.app.service.ShiftExportService;
+import com.example.app.service.ShiftPlanService;
+import com.example.app.service.ShiftQueryService;
 import com.example.app.service.ShiftService;
 
 @Controller
@@ -41,22 +60,28 @@ public class ShiftController {
     private static final Logger logger = LoggerFactory.getLogger(ShiftController.class);
 
     @Autowired
-    private TaskRepository taskRepository;
+    private ShiftQueryService shiftQueryService;
 
     @Autowired
-    private PreferredShiftRepository preferredShiftRepository;
+    private AssignmentFormParser assignmentFormParser;
 
     @Autowired
-    private PartTimeEmployeeRepository partTimeEmployeeRepository;
+    private ShiftAssignmentService shiftAssignmentService;
 
     @Autowired
-    private WorkplaceRepository workplaceRepository;
+    private ShiftService shiftService;
 
     @Autowired
-    private ShiftAssignmentService shiftAssignmentService;
+    private ShiftPlanService shiftPlanService;
 
     @Autowired
-    private ShiftService shiftService;
+    private ScheduleGenerationService scheduleGenerationService;
+
+    @Autowired
+    private ShiftExportService shiftExportService;
+
+    @Autowired
+    private ShiftDraftService shiftDraftService;
 
     private LocalDate getDefaultWorkDate() {
         LocalDate today = LocalDate.now();
@@ -82,74 +107,35 @@ public class ShiftController {
         try {
             // 日付をLocalDateに変換
             LocalDate parsedWorkDate = LocalDate.parse(workDate);
-            PreferredShift.DayOfWeek dayOfWeek;
-            try {
-                dayOfWeek = PreferredShift.DayOfWeek.valueOf(
-                        parsedWorkDate.getDayOfWeek().toString().toUpperCase(Locale.ENGLISH));
-            } catch (IllegalArgumentException e) {
-                logger.warn("Invalid day of week for workDate: {}", workDate, e);
-                dayOfWeek = null;
+
+            // 出勤希望シフトと人数概要を取得
+            DayAvailability availability = shiftQueryService.availability(parsedWorkDate);
+            if (availability.getDayOfWeek() == null) {
+                logger.warn("Invalid day of week for workDate: {}", workDate);
             }
+            List<PreferredShift> preferredShifts = availability.getPreferredShifts();
+            Map<Long, PartTimeEmployee> employees = availability.getRoster().getEmployees();
+            Headcount employeeCounts = availability.getHeadcount();
 
-            // 出勤希望シフトを取得
-            List<PreferredShift> preferredShifts = dayOfWeek != null
-                    ? preferredShiftRepository.findByDayOfWeek(dayOfWeek)
-                    : new ArrayList<>();
-            Map<Long, PartTimeEmployee> employees = partTimeEmployeeRepository.findAll().stream()
-                    .filter(e -> e != null && e.getId() != null)
-                    .collect(Collectors.toMap(PartTimeEmployee::getId, e -> e));
-
-            // 人数概要を計算
-            Map<String, Long> employeeCounts = new HashMap<>();
-            employeeCounts.put("amTotal", preferredShifts.stream()
-                    .filter(shift -> shift.getTimeSlot() != null && shift.getTimeSlot() == PreferredShift.TimeSlot.AM)
-                    .map(PreferredShift::getEmployeeId)
-                    .filter(id -> id != null)
-                    .distinct()
-                    .count());
-            employeeCounts.put("pmTotal", preferredShifts.stream()
-                    .filter(shift -> shift.getTimeSlot() != null && shift.getTimeSlot() == PreferredShift.TimeSlot.PM)
-                    .map(PreferredShift::getEmployeeId)
-                    .filter(id -> id != null)
-                    .distinct()
-                    .count());
-            employeeCounts.put("leader", preferredShifts.stream()
-                    .filter(shift -> shift.getEmployeeId() != null)
-                    .map(shift -> employees.get(shift.getEmployeeId()))
-                    .filter(employee -> employee != null && "リーダー".equals(employee.getSkillLevel()))
-                    .distinct()
-                    .count());
-            employeeCounts.put("general", preferredShifts.stream()
-                    .filter(shift -> shift.getEmployeeId() != null)
-                    .map(shift -> employees.get(shift.getEmployeeId()))
-                    .filter(employee -> employee != null && "一般".equals(employee.getSkillLevel()))
-                    .distinct()
-                    .count());
-            employeeCounts.put("newcomer", preferredShifts.stream()
-                    .filter(shift -> shift.getEmployeeId() != null)
-                    .map(shift -> employees.get(shift.getEmployeeId()))
-                    .filter(employee -> employee != null && "新人".equals(employee.getSkillLevel()))
-                    .distinct()
-                    .count());
+            List<PreferredShiftRow> rows = new ArrayList<>(preferredShifts.size());
+            for (PreferredShift shift : preferredShifts) {
+                rows.add(new PreferredShiftRow(shift, employees.get(shift.getEmployeeId())));
+            }
 
             model.addAttribute("employees", employees);
             model.addAttribute("preferredShifts", preferredShifts);
+            model.addAttribute("rows", rows);
             model.addAttribute("employeeCounts", employeeCounts);
             logger.debug("Model attributes: workDate={}, employees.size={}, preferredShifts.size={}",
                     workDate, employees.size(), preferredShifts.size());
             return "employees/available_employees";
         } catch (Exception e) {
             logger.error("Failed to load preferred shifts: {}", e.getMessage(), e);
-            Map<String, Long> employeeCounts = new HashMap<>();
-            employeeCounts.put("leader", 0L);
-            employeeCounts.put("general", 0L);
-            employeeCounts.put("newcomer", 0L);
-            employeeCounts.put("amTotal", 0L);
-            employeeCounts.put("pmTotal", 0L);
             model.addAttribute("error", "出勤予定者の取得に失敗しました: " + e.getMessage());
             model.addAttribute("employees", new HashMap<Long, PartTimeEmployee>());
             model.addAttribute("preferredShifts", new ArrayList<PreferredShift>());
-            model.addAttribute("employeeCounts", employeeCounts);
+            model.addAttribute("rows", new ArrayList<PreferredShiftRow>());
+            model.addAttribute("employeeCounts", Headcount.EMPTY);
             return "employees/available_employees";
         }
     }
@@ -162,278 +148,108 @@ public class ShiftController {
         workDate = workDate != null ? workDate : getDefaultWorkDate();
         model.addAttribute("workDate", workDate);
         try {
-            List<Workplace> workplaces = workplaceRepository.findAll()
-                    .stream()
-                    .filter(w -> w != null && w.getId() != null)
-                    .collect(Collectors.toList());
+            DayAvailability availability = shiftQueryService.availability(workDate);
+            RosterSnapshot roster = availability.getRoster();
+            List<Workplace> workplaces = roster.getWorkplaces();
             model.addAttribute("workplaces", workplaces);
 
-            List<Task> firstHouseTasks = taskRepository.findByIdBetween(1L, 5L);
+            List<Task> firstHouseTasks = roster.getTasksBetween(1L, 5L);
             model.addAttribute("firstHouseTasks", firstHouseTasks);
 
-            List<Task> secondHouseTasks = taskRepository.findByIdBetween(6L, 10L);
+            List<Task> secondHouseTasks = roster.getTasksBetween(6L, 10L);
             model.addAttribute("secondHouseTasks", secondHouseTasks);
 
-            PreferredShift.DayOfWeek dayOfWeek;
-            try {
-                dayOfWeek = PreferredShift.DayOfWeek.valueOf(
-                        workDate.getDayOfWeek().toString().toUpperCase(Locale.ENGLISH));
-            } catch (IllegalArgumentException e) {
-                logger.warn("No shifts available for day: {}", workDate.getDayOfWeek(), e);
-                dayOfWeek = null;
+            if (availability.getDayOfWeek() == null) {
+                logger.warn("No shifts available for day: {}", workDate.getDayOfWeek());
             }
-            List<PreferredShift> preferredShifts = dayOfWeek != null
-                    ? preferredShiftRepository.findByDayOfWeek(dayOfWeek)
-                    : new ArrayList<>();
-            Map<Long, PartTimeEmployee> employees = partTimeEmployeeRepository.findAll().stream()
-                    .filter(e -> e != null && e.getId() != null)
-                    .collect(Collectors.toMap(PartTimeEmployee::getId, e -> e));
-            Map<Long, Map<String, Object>> availableEmployees = new HashMap<>();
-            for (PreferredShift shift : preferredShifts) {
-                Long employeeId = shift.getEmployeeId();
-                PartTimeEmployee employee = employees.get(employeeId);
-                if (employee == null) continue;
-                Map<String, Object> employeeData = availableEmployees.computeIfAbsent(employeeId, k -> new HashMap<>());
-                employeeData.putIfAbsent("name", employee.getNameKanji() != null ? employee.getNameKanji() : "不明");
-                employeeData.putIfAbsent("skillLevel", employee.getSkillLevel() != null ? employee.getSkillLevel().toString() : "UNKNOWN");
-                List<String> timeSlots = (List<String>) employeeData.computeIfAbsent("timeSlots", k -> new ArrayList<>());
-                if (shift.getTimeSlot() != null && !timeSlots.contains(shift.getTimeSlot().toString())) {
-                    timeSlots.add(shift.getTimeSlot().toString());
-                }
-            }
-            Map<String, Long> employeeCounts = new HashMap<>();
-            employeeCounts.put("amTotal", preferredShifts.stream()
-                    .filter(shift -> shift.getTimeSlot() != null && shift.getTimeSlot() == PreferredShift.TimeSlot.AM)
-                    .map(PreferredShift::getEmployeeId)
-                    .filter(id -> id != null)
-                    .distinct()
-                    .count());
-            employeeCounts.put("pmTotal", preferredShifts.stream()
-                    .filter(shift -> shift.getTimeSlot() != null && shift.getTimeSlot() == PreferredShift.TimeSlot.PM)
-                    .map(PreferredShift::getEmployeeId)
-                    .filter(id -> id != null)
-                    .distinct()
-                    .count());
-            employeeCounts.put("leader", preferredShifts.stream()
-                    .filter(shift -> shift.getEmployeeId() != null)
-                    .map(shift -> employees.get(shift.getEmployeeId()))
-                    .filter(employee -> employee != null && "リーダー".equals(employee.getSkillLevel()))
-                    .distinct()
-                    .count());
-            employeeCounts.put("general", preferredShifts.stream()
-                    .filter(shift -> shift.getEmployeeId() != null)
-                    .map(shift -> employees.get(shift.getEmployeeId()))
-                    .filter(employee -> employee != null && "一般".equals(employee.getSkillLevel()))
-                    .distinct()
-                    .count());
-            employeeCounts.put("newcomer", preferredShifts.stream()
-                    .filter(shift -> shift.getEmployeeId() != null)
-                    .map(shift -> employees.get(shift.getEmployeeId()))
-                    .filter(employee -> employee != null && "新人".equals(employee.getSkillLevel()))
-                    .distinct()
-                    .count());
-            model.addAttribute("employeeCounts", employeeCounts);
-            model.addAttribute("availableEmployees", availableEmployees);
+            // フォームに出すのは人数の概要だけなので、社員ごとの一覧は作らない
+            model.addAttribute("employeeCounts", availability.getHeadcount());
         } catch (Exception e) {
             logger.error("Failed to load workplaces or tasks: {}", e.getMessage(), e);
             model.addAttribute("error", "職場またはタスクの取得に失敗しました: " + e.getMessage());
             model.addAttribute("workplaces", new ArrayList<Workplace>());
             model.addAttribute("firstHouseTasks", new ArrayList<Task>());
             model.addAttribute("secondHouseTasks", new ArrayList<Task>());
-            model.addAttribute("employeeCounts", new HashMap<String, Long>());
-            model.addAttribute("availableEmployees", new HashMap<Long, Map<String, Object>>());
+            model.addAttribute("employeeCounts", Headcount.EMPTY);
             return "employees/shift_assignment_form";
         }
         return "employees/shift_assignment_form";
     }
 
+    // 割り当てを計算して見せるだけ（保存は結果画面の「保存」から /shifts/assign/save で行う）
     @PostMapping("/shifts/assign")
     public String assignShifts(
             @RequestParam(value = "workDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate workDate,
-            @RequestParam Map<String, String> allParams,
+            @RequestParam MultiValueMap<String, String> allParams,
             Model model) {
         logger.info("Processing shift assignment for workDate: {}", workDate);
-        workDate = workDate != null ? workDate : getDefaultWorkDate();
+        return assignDay(workDate != null ? workDate : getDefaultWorkDate(), allParams, model, false);
+    }
+
+    // 同じフォームの内容で割り当て直し、エラーがなければその日の計画を置き換える（割り当てが0件なら日を空にする）
+    @PostMapping("/shifts/assign/save")
+    public String saveShifts(
+            @RequestParam(value = "workDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate workDate,
+            @RequestParam MultiValueMap<String, String> allParams,
+            Model model) {
+        logger.info("Saving shift assignment for workDate: {}", workDate);
+        return assignDay(workDate != null ? workDate : getDefaultWorkDate(), allParams, model, true);
+    }
+
+    private String assignDay(LocalDate workDate, MultiValueMap<String, String> allParams, Model model, boolean save) {
         Map<Long, ShiftAssignmentDto> assignments = new HashMap<>();
         List<String> errors = new ArrayList<>();
-        Map<Long, List<PartTimeEmployee>> assignedEmployees = new HashMap<>();
         try {
-            Map<Long, String> workplaceNames = workplaceRepository.findAll().stream()
-                    .filter(w -> w != null && w.getId() != null)
-                    .collect(Collectors.toMap(Workplace::getId, Workplace::getName));
-            Map<Long, Map<String, Object>> formAssignments = new HashMap<>();
-
-            // Initialize workplaces
-            for (Workplace workplace : workplaceRepository.findAll()) {
-                if (workplace != null && workplace.getId() != null) {
-                    Map<String, Object> workplaceData = new HashMap<>();
-                    workplaceData.put("am_count", 0);
-                    workplaceData.put("pm_count", 0);
-                    workplaceData.put("tasks", new ArrayList<String>());
-                    workplaceData.put("taskIds", new ArrayList<Long>());
-                    formAssignments.put(workplace.getId(), workplaceData);
-                }
-            }
-
-            // Process form data
-            Map<Integer, Long> indexToWorkplaceId = new HashMap<>();
-            for (Map.Entry<String, String> entry : allParams.entrySet()) {
-                String key = entry.getKey();
-                String value = entry.getValue();
-
-                // workplaceId
-                Matcher workplaceIdMatcher = Pattern.compile("assignments\\[(\\d+)\\]\\[workplaceId\\]").matcher(key);
-                if (workplaceIdMatcher.matches()) {
-                    try {
-                        Long workplaceId = Long.parseLong(value.trim());
-                        if (!workplaceNames.containsKey(workplaceId)) {
-                            errors.add("無効な職場ID: " + workplaceId);
-                            continue;
-                        }
-                        int index = Integer.parseInt(workplaceIdMatcher.group(1));
-                        indexToWorkplaceId.put(index, workplaceId);
-                        formAssignments.computeIfAbsent(workplaceId, k -> new HashMap<>()).put("index", index);
-                    } catch (NumberFormatException e) {
-                        errors.add("職場IDが無効です: " + value);
-                    }
-                }
-
-                // Counts
-                Matcher countMatcher = Pattern.compile("assignments\\[(\\d+)\\]\\[(\\w+)\\]\\[count\\]").matcher(key);
-                if (countMatcher.matches()) {
-                    try {
-                        int index = Integer.parseInt(countMatcher.group(1));
-                        Long workplaceId = indexToWorkplaceId.get(index);
-                        if (workplaceId == null || !workplaceNames.containsKey(workplaceId)) {
-                            errors.add("無効なインデックス: " + index);
-                            continue;
-                        }
-                        String timeSlot = countMatcher.group(2);
-                        Map<String, Object> workplaceData = formAssignments.get(workplaceId);
-                        int count = value.isEmpty() ? 0 : Integer.parseInt(value.trim());
-                        if (count < 0) {
-                            errors.add("人数は0以上でなければなりません: " + count + " (職場ID: " + workplaceId + ")");
-                            continue;
-                        }
-                        workplaceData.put(timeSlot.toLowerCase() + "_count", count);
-                    } catch (NumberFormatException e) {
-                        errors.add("人数の入力値が無効です: " + value);
-                    }
-                }
-
-                // Tasks
-                Matcher taskMatcher = Pattern.compile("assignments\\[(\\d+)\\]\\[tasks\\]\\[\\]").matcher(key);
-                if (taskMatcher.matches()) {
-                    try {
-                        int index = Integer.parseInt(taskMatcher.group(1));
-                        Long workplaceId = indexToWorkplaceId.get(index);
-                        if (workplaceId == null || !workplaceNames.containsKey(workplaceId)) {
-                            errors.add("無効なインデックス: " + index);
-                            continue;
-                        }
-                        if (!workplaceNames.get(workplaceId).equals("選果場")) {
-                            Map<String, Object> workplaceData = formAssignments.get(workplaceId);
-                            List<String> taskNames = (List<String>) workplaceData.computeIfAbsent("tasks", k -> new ArrayList<>());
-                            List<Long> taskIds = (List<Long>) workplaceData.computeIfAbsent("taskIds", k -> new ArrayList<>());
-                            if (!value.isEmpty()) {
-                                Long taskId = Long.parseLong(value);
-                                taskRepository.findById(taskId).ifPresent(task -> {
-                                    if (taskId >= 1 && taskId <= 10 && !taskIds.contains(taskId)) {
-                                        taskNames.add(task.getName());
-                                        taskIds.add(taskId);
-                                    }
-                                });
-                            }
-                        }
-                    } catch (NumberFormatException e) {
-                        errors.add("タスクIDが無効です: " + value);
-                    }
-                }
-            }
+            DayAvailability availability = shiftQueryService.availability(workDate);
+            RosterSnapshot roster = availability.getRoster();
+            Map<Long, String> workplaceNames = roster.getWorkplaceNames();
+            Map<Long, Map<String, Object>> formAssignments = buildFormAssignments(allParams, roster, errors);
 
             // Get preferred shifts
-            PreferredShift.DayOfWeek dayOfWeek;
-            try {
-                dayOfWeek = PreferredShift.DayOfWeek.valueOf(
-                        workDate.getDayOfWeek().toString().toUpperCase(Locale.ENGLISH));
-            } catch (IllegalArgumentException e) {
+            if (availability.getDayOfWeek() == null) {
                 errors.add("指定された曜日にシフトがありません: " + workDate.getDayOfWeek());
-                dayOfWeek = null;
             }
-            List<PreferredShift> preferredShifts = dayOfWeek != null
-                    ? preferredShiftRepository.findByDayOfWeek(dayOfWeek)
-                    : new ArrayList<>();
-            if (preferredShifts.isEmpty()) {
+            Map<Long, PartTimeEmployee> employees = roster.getEmployees();
+            Headcount employeeCounts = availability.getHeadcount();
+            if (employeeCounts.getAmTotal() + employeeCounts.getPmTotal() == 0) {
                 errors.add("指定された曜日の出勤希望シフトがありません。");
             }
-            Map<Long, PartTimeEmployee> employees = partTimeEmployeeRepository.findAll().stream()
-                    .filter(e -> e != null && e.getId() != null)
-                    .collect(Collectors.toMap(PartTimeEmployee::getId, e -> e));
-
-            // Calculate employee counts
-            Map<String, Long> employeeCounts = new HashMap<>();
-            employeeCounts.put("amTotal", preferredShifts.stream()
-                    .filter(shift -> shift.getTimeSlot() != null && shift.getTimeSlot() == PreferredShift.TimeSlot.AM)
-                    .map(PreferredShift::getEmployeeId)
-                    .filter(id -> id != null)
-                    .distinct()
-                    .count());
-            employeeCounts.put("pmTotal", preferredShifts.stream()
-                    .filter(shift -> shift.getTimeSlot() != null && shift.getTimeSlot() == PreferredShift.TimeSlot.PM)
-                    .map(PreferredShift::getEmployeeId)
-                    .filter(id -> id != null)
-                    .distinct()
-                    .count());
-            employeeCounts.put("leader", preferredShifts.stream()
-                    .filter(shift -> shift.getEmployeeId() != null)
-                    .map(shift -> employees.get(shift.getEmployeeId()))
-                    .filter(employee -> employee != null && "リーダー".equals(employee.getSkillLevel()))
-                    .distinct()
-                    .count());
-            employeeCounts.put("general", preferredShifts.stream()
-                    .filter(shift -> shift.getEmployeeId() != null)
-                    .map(shift -> employees.get(shift.getEmployeeId()))
-                    .filter(employee -> employee != null && "一般".equals(employee.getSkillLevel()))
-                    .distinct()
-                    .count());
-            employeeCounts.put("newcomer", preferredShifts.stream()
-                    .filter(shift -> shift.getEmployeeId() != null)
-                    .map(shift -> employees.get(shift.getEmployeeId()))
-                    .filter(employee -> employee != null && "新人".equals(employee.getSkillLevel()))
-                    .distinct()
-                    .count());
-
-            // Assign employees
+
+            // Assign employees（候補者は列指向の名簿から直近の勤務が少ない順に選び、エンティティは割り当てた社員の分だけ引く）
             try {
-                assignments = shiftAssignmentService.assignEmployees(
-                        workDate, formAssignments, employees, preferredShifts, workplaceNames);
+                assignments = shiftAssignmentService.assignEmployees(workDate, formAssignments,
+                        availability.getCompactRoster(), availability.getDayOfWeek(),
+                        shiftQueryService.workload(availability), employees, workplaceNames);
             } catch (Exception e) {
                 errors.add("シフト割り当て中にエラーが発生しました: " + e.getMessage());
             }
 
-            // Prepare assigned employees for display
-            for (Map.Entry<Long, ShiftAssignmentDto> entry : assignments.entrySet()) {
-                Long workplaceId = entry.getKey();
-                ShiftAssignmentDto dto = entry.getValue();
-                List<PartTimeEmployee> workplaceEmployees = new ArrayList<>();
-                if (dto.getAmEmployees() != null) {
-                    workplaceEmployees.addAll(dto.getAmEmployees());
+            // Save the plan for the day (replaces the previous one)
+            if (save && errors.isEmpty()) {
+                try {
+                    int saved = shiftPlanService.savePlan(workDate, assignments, taskIdsByWorkplace(formAssignments));
+                    model.addAttribute("message", saved + "件のシフトを保存しました。");
+                } catch (Exception e) {
+                    logger.error("Failed to save shift plan for {}: {}", workDate, e.getMessage(), e);
+                    errors.add("シフトの保存に失敗しました: " + e.getMessage());
                 }
-                if (dto.getPmEmployees() != null) {
-                    workplaceEmployees.addAll(dto.getPmEmployees());
-                }
-                assignedEmployees.put(workplaceId, workplaceEmployees);
+            }
+
+            // 表示用の行（職場ごと）
+            List<ShiftAssignmentRow> rows = new ArrayList<>(roster.getWorkplaces().size());
+            for (Workplace workplace : roster.getWorkplaces()) {
+                rows.add(ShiftAssignmentRow.of(workplace, assignments.get(workplace.getId())));
             }
 
             model.addAttribute("workDate", workDate);
             model.addAttribute("assignments", assignments);
-            model.addAttribute("workplaces", workplaceRepository.findAll().stream()
-                    .filter(w -> w != null && w.getId() != null)
-                    .collect(Collectors.toList()));
-            model.addAttribute("preferredShifts", preferredShifts);
+            model.addAttribute("workplaces", roster.getWorkplaces());
             model.addAttribute("employees", employees);
             model.addAttribute("employeeCounts", employeeCounts);
-            model.addAttribute("assignedEmployees", assignedEmployees);
+            model.addAttribute("rows", rows);
+            // 保存ボタンで同じ内容を送り直すためのフォーム値
+            model.addAttribute("formParams", allParams);
+            model.addAttribute("saved", save && errors.isEmpty());
             if (!errors.isEmpty()) {
                 model.addAttribute("error", String.join("; ", errors));
             }
@@ -442,22 +258,264 @@ public class ShiftController {
             errors.add("予期しないエラーが発生しました: " + e.getMessage());
             model.addAttribute("error", String.join("; ", errors));
             model.addAttribute("workDate", workDate != null ? workDate : getDefaultWorkDate());
-            model.addAttribute("workplaces", workplaceRepository.findAll().stream()
-                    .filter(w -> w != null && w.getId() != null)
-                    .collect(Collectors.toList()));
-            model.addAttribute("firstHouseTasks", taskRepository.findByIdBetween(1L, 5L));
-            model.addAttribute("secondHouseTasks", taskRepository.findByIdBetween(6L, 10L));
-            Map<String, Long> employeeCounts = new HashMap<>();
-            employeeCounts.put("amTotal", 0L);
-            employeeCounts.put("pmTotal", 0L);
-            employeeCounts.put("leader", 0L);
-            employeeCounts.put("general", 0L);
-            employeeCounts.put("newcomer", 0L);
-            model.addAttribute("employeeCounts", employeeCounts);
+            RosterSnapshot roster = shiftQueryService.roster();
+            model.addAttribute("workplaces", roster.getWorkplaces());
+            model.addAttribute("firstHouseTasks", roster.getTasksBetween(1L, 5L));
+            model.addAttribute("secondHouseTasks", roster.getTasksBetween(6L, 10L));
+            model.addAttribute("employeeCounts", Headcount.EMPTY);
             model.addAttribute("preferredShifts", new ArrayList<PreferredShift>());
             model.addAttribute("employees", new HashMap<Long, PartTimeEmployee>());
-            model.addAttribute("assignedEmployees", new HashMap<Long, List<PartTimeEmployee>>());
             return "employees/shift_assignment_form";
         }
     }
-}
\ No newline at end of file
+
+    // 割り当てフォームの内容を「基本」の案として下書きを作り、案の比較画面へ移る
+    @PostMapping("/shifts/drafts")
+    public String createDraft(
+            @RequestParam(value = "workDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate workDate,
+            @RequestParam MultiValueMap<String, String> allParams,
+            RedirectAttributes redirectAttributes) {
+        workDate = workDate != null ? workDate : getDefaultWorkDate();
+        logger.info("Creating shift draft for workDate: {}", workDate);
+        List<String> errors = new ArrayList<>();
+        Map<Long, Map<String, Object>> formAssignments = buildFormAssignments(allParams, shiftQueryService.roster(), errors);
+        ShiftDraft draft = shiftDraftService.create(workDate, formAssignments);
+        if (!errors.isEmpty()) {
+            redirectAttributes.addFlashAttribute("error", String.join("; ", errors));
+        }
+        return "redirect:/admin/shifts/drafts/" + draft.getId();
+    }
+
+    // 下書きの案を横に並べて比べる。作成時点の土台から計算するので DB には触れない
+    @GetMapping("/shifts/drafts/{id}")
+    public String showDraft(@PathVariable String id, Model model, RedirectAttributes redirectAttributes) {
+        Optional<ShiftDraft> found = shiftDraftService.find(id);
+        if (found.isEmpty()) {
+            return draftNotFound(id, redirectAttributes);
+        }
+        ShiftDraft draft = found.get();
+        RosterSnapshot roster = draft.getAvailability().getRoster();
+        List<String> names = new ArrayList<>(draft.getScenarios().size());
+        List<Map<Long, ShiftAssignmentDto>> plans = new ArrayList<>(draft.getScenarios().size());
+        for (int i = 0; i < draft.getScenarios().size(); i++) {
+            names.add(draft.getScenarios().get(i).getName());
+            plans.add(shiftDraftService.assignments(draft, i));
+        }
+        List<Workplace> workplaces = new ArrayList<>(draft.getWorkplaceIds().size());
+        for (Long workplaceId : draft.getWorkplaceIds()) {
+            workplaces.add(roster.getWorkplacesById().get(workplaceId));
+        }
+        model.addAttribute("draft", draft);
+        model.addAttribute("workDate", draft.getWorkDate());
+        model.addAttribute("comparison", ScenarioComparison.of(names, workplaces, plans));
+        model.addAttribute("workplaces", workplaces);
+        model.addAttribute("employeeCounts", draft.getAvailability().getHeadcount());
+        model.addAttribute("stale", !shiftDraftService.isCurrent(draft));
+        return "employees/shift_draft";
+    }
+
+    // base 番目の案から1つの職場・時間帯の必要人数を変えた案を足す（その時間帯だけ解き直す）
+    @PostMapping("/shifts/drafts/{id}/scenarios")
+    public String addDraftScenario(@PathVariable String id,
+            @RequestParam("base") int base,
+            @RequestParam("workplaceId") Long workplaceId,
+            @RequestParam("timeSlot") PreferredShift.TimeSlot timeSlot,
+            @RequestParam("count") int count,
+            RedirectAttributes redirectAttributes) {
+        logger.info("Adding scenario to draft {}: base {}, workplace {}, {} = {}", id, base, workplaceId, timeSlot, count);
+        if (shiftDraftService.find(id).isEmpty()) {
+            return draftNotFound(id, redirectAttributes);
+        }
+        try {
+            shiftDraftService.addScenario(id, base, workplaceId, timeSlot, count);
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return "redirect:/admin/shifts/drafts/" + id;
+    }
+
+    // 選んだ案でその日の計画を置き換える
+    @PostMapping("/shifts/drafts/{id}/scenarios/{index}/save")
+    public String saveDraftScenario(@PathVariable String id, @PathVariable int index,
+            RedirectAttributes redirectAttributes) {
+        Optional<ShiftDraft> found = shiftDraftService.find(id);
+        if (found.isEmpty()) {
+            return draftNotFound(id, redirectAttributes);
+        }
+        ShiftDraft draft = found.get();
+        // 作成後に辞めた社員や希望を取り下げた社員を保存しないよう、土台が古ければ保存しない
+        if (!shiftDraftService.isCurrent(draft)) {
+            redirectAttributes.addFlashAttribute("error",
+                    "下書きを作成した後に社員または出勤希望が変更されたため保存できません。下書きを作り直してください。");
+            return "redirect:/admin/shifts/drafts/" + id;
+        }
+        try {
+            int saved = shiftPlanService.savePlan(draft.getWorkDate(), shiftDraftService.assignments(draft, index),
+                    taskIdsByWorkplace(draft.getFormAssignments()));
+            redirectAttributes.addFlashAttribute("message",
+                    draft.getScenarios().get(index).getName() + "で" + saved + "件のシフトを保存しました。");
+        } catch (Exception e) {
+            logger.error("Failed to save draft {} scenario {}: {}", id, index, e.getMessage(), e);
+            redirectAttributes.addFlashAttribute("error", "シフトの保存に失敗しました: " + e.getMessage());
+        }
+        return "redirect:/admin/shifts/drafts/" + id;
+    }
+
+    // 期限切れ・不明な下書きは割り当てフォームへ戻す
+    private String draftNotFound(String id, RedirectAttributes redirectAttributes) {
+        logger.info("Shift draft {} not found or expired", id);
+        redirectAttributes.addFlashAttribute("error", "下書きが見つかりません（期限切れの可能性があります）。もう一度作成してください。");
+        return "redirect:/admin/shifts/assign";
+    }
+
+    @GetMapping("/shifts/generate")
+    public String showGenerationForm(
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            Model model) {
+        logger.info("Showing schedule generation form for startDate: {}", startDate);
+        startDate = startDate != null ? startDate : getDefaultWorkDate();
+        model.addAttribute("startDate", startDate);
+        model.addAttribute("endDate", startDate.plusDays(6));
+        try {
+            RosterSnapshot roster = shiftQueryService.roster();
+            model.addAttribute("workplaces", roster.getWorkplaces());
+            model.addAttribute("firstHouseTasks", roster.getTasksBetween(1L, 5L));
+            model.addAttribute("secondHouseTasks", roster.getTasksBetween(6L, 10L));
+        } catch (Exception e) {
+            logger.error("Failed to load workplaces or tasks: {}", e.getMessage(), e);
+            model.addAttribute("error", "職場またはタスクの取得に失敗しました: " + e.getMessage());
+            model.addAttribute("workplaces", new ArrayList<Workplace>());
+            model.addAttribute("firstHouseTasks", new ArrayList<Task>());
+            model.addAttribute("secondHouseTasks", new ArrayList<Task>());
+        }
+        return "employees/schedule_generation_form";
+    }
+
+    @PostMapping("/shifts/generate")
+    public String generateSchedule(
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "maxDaysPerEmployee", defaultValue = "0") int maxDaysPerEmployee,
+            @RequestParam MultiValueMap<String, String> allParams,
+            Model model) {
+        logger.info("Generating schedule for {} - {}, maxDaysPerEmployee: {}", startDate, endDate, maxDaysPerEmployee);
+        List<String> errors = new ArrayList<>();
+        model.addAttribute("startDate", startDate);
+        model.addAttribute("endDate", endDate);
+        try {
+            RosterSnapshot roster = shiftQueryService.roster();
+            Map<Long, Map<String, Object>> formAssignments = buildFormAssignments(allParams, roster, errors);
+            ScheduleGenerationResult result = scheduleGenerationService.generate(startDate, endDate,
+                    formAssignments, taskIdsByWorkplace(formAssignments), maxDaysPerEmployee, true);
+            // 表示用の行（日付 × 必要人数のある職場）
+            List<ShiftAssignmentRow> rows = new ArrayList<>();
+            for (Map.Entry<LocalDate, Map<Long, ShiftAssignmentDto>> plan : result.getPlans().entrySet()) {
+                for (Workplace workplace : roster.getWorkplaces()) {
+                    ShiftAssignmentDto dto = plan.getValue().get(workplace.getId());
+                    if (dto != null && (dto.getAmCount() > 0 || dto.getPmCount() > 0)) {
+                        rows.add(ShiftAssignmentRow.of(plan.getKey(), workplace, dto));
+                    }
+                }
+            }
+            model.addAttribute("result", result);
+            model.addAttribute("rows", rows);
+            model.addAttribute("message", result.getPlans().size() + "日分・" + result.getSavedRows() + "件のシフトを保存しました。");
+        } catch (Exception e) {
+            logger.error("Failed to generate schedule: {}", e.getMessage(), e);
+            errors.add("シフトの一括生成に失敗しました: " + e.getMessage());
+            model.addAttribute("rows", new ArrayList<ShiftAssignmentRow>());
+        }
+        if (!errors.isEmpty()) {
+            model.addAttribute("error", String.join("; ", errors));
+        }
+        return "employees/schedule_generation_result";
+    }
+
+    // 保存済みシフトを CSV で返す（format=excel なら BOM 付き）。行は読みながら書き出す
+    @GetMapping("/shifts/export")
+    public ResponseEntity<StreamingResponseBody> exportShifts(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "format", defaultValue = "excel") String format) {
+        logger.info("Exporting shift assignments {} - {} as {}", from, to, format);
+        // ダウンロードの URL が不正なときは、エラー画面（GlobalExceptionHandler）ではなく 400 を返す
+        if (to.isBefore(from)) {
+            return badRequest("終了日は開始日以降を指定してください: " + from + " - " + to);
+        }
+        if (!"excel".equalsIgnoreCase(format) && !"csv".equalsIgnoreCase(format)) {
+            return badRequest("format は excel または csv を指定してください: " + format);
+        }
+        boolean excel = "excel".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            shiftExportService.writeCsv(from, to, excel, writer);
+        };
+        String filename = "shift_assignments_" + from + "_" + to + ".csv";
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> badRequest(String message) {
+        logger.debug("Bad export request: {}", message);
+        return ResponseEntity.badRequest()
+                .contentType(new MediaType("text", "plain", StandardCharsets.UTF_8))
+                .body(out -> out.write(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // フォームの入力を職場ID → {am_count, pm_count, tasks, taskIds} に変換する
+    private Map<Long, Map<String, Object>> buildFormAssignments(MultiValueMap<String, String> allParams,
+            RosterSnapshot roster, List<String> errors) {
+        Map<Long, String> workplaceNames = roster.getWorkplaceNames();
+        Map<Long, Map<String, Object>> formAssignments = new HashMap<>();
+
+        // Initialize workplaces
+        for (Workplace workplace : roster.getWorkplaces()) {
+            Map<String, Object> workplaceData = new HashMap<>();
+            workplaceData.put("am_count", 0);
+            workplaceData.put("pm_count", 0);
+            workplaceData.put("tasks", new ArrayList<String>());
+            workplaceData.put("taskIds", new ArrayList<Long>());
+            formAssignments.put(workplace.getId(), workplaceData);
+        }
+
+        // Process form data
+        AssignmentRequest request = assignmentFormParser.parse(allParams);
+        errors.addAll(request.getErrors());
+        for (AssignmentRequest.WorkplaceAssignment workplaceAssignment : request.getWorkplaces()) {
+            Long workplaceId = workplaceAssignment.getWorkplaceId();
+            if (!workplaceNames.containsKey(workplaceId)) {
+                errors.add("無効な職場ID: " + workplaceId);
+                continue;
+            }
+            Map<String, Object> workplaceData = formAssignments.get(workplaceId);
+            workplaceData.put("index", workplaceAssignment.getIndex());
+            workplaceData.put("am_count", workplaceAssignment.getAmCount());
+            workplaceData.put("pm_count", workplaceAssignment.getPmCount());
+
+            // Tasks
+            if (!workplaceNames.get(workplaceId).equals("選果場")) {
+                List<String> taskNames = (List<String>) workplaceData.get("tasks");
+                List<Long> taskIds = (List<Long>) workplaceData.get("taskIds");
+                for (Long taskId : workplaceAssignment.getTaskIds()) {
+                    Task task = roster.getTasksById().get(taskId);
+                    if (task == null) {
+                        errors.add("無効なタスクID: " + taskId);
+                    } else if (!taskIds.contains(taskId)) {
+                        taskNames.add(task.getName());
+                        taskIds.add(taskId);
+                    }
+                }
+            }
+        }
+        return formAssignments;
+    }
+
+    private static Map<Long, List<Long>> taskIdsByWorkplace(Map<Long, Map<String, Object>> formAssignments) {
+        Map<Long, List<Long>> taskIds = new HashMap<>();
+        formAssignments.forEach((workplaceId, data) -> taskIds.put(workplaceId, (List<Long>) data.get("taskIds")));
+        return taskIds;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.app.dto;
+
+import java.util.List;
+
+/**
+ * シフト割り当てフォーム（assignments[n][...]）を解析した結果。
+ */
+public class AssignmentRequest {
+    private final List<WorkplaceAssignment> workplaces;
+    private final List<String> errors;
+
+    public AssignmentRequest(List<WorkplaceAssignment> workplaces, List<String> errors) {
+        this.workplaces = List.copyOf(workplaces);
+        this.errors = List.copyOf(errors);
+    }
+
+    // フォーム上のインデックス順
+    public List<WorkplaceAssignment> getWorkplaces() { return workplaces; }
+
+    public List<String> getErrors() { return errors; }
+
+    public static class WorkplaceAssignment {
+        private final int index;
+        private final Long workplaceId;
+        private final int amCount;
+        private final int pmCount;
+        private final List<Long> taskIds;
+
+        public WorkplaceAssignment(int index, Long workplaceId, int amCount, int pmCount, List<Long> taskIds) {
+            this.index = index;
+            this.workplaceId = workplaceId;
+            this.amCount = amCount;
+            this.pmCount = pmCount;
+            this.taskIds = List.copyOf(taskIds);
+        }
+
+        public int getIndex() { return index; }
+
+        // 職場IDが送信されなかった、または不正だった行は parse で除くので null にはならない
+        public Long getWorkplaceId() { return workplaceId; }
+
+        public int getAmCount() { return amCount; }
+
+        public int getPmCount() { return pmCount; }
+
+        public List<Long> getTaskIds() { return taskIds; }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.app.dto;
+
+import java.time.LocalDate;
+
+import com.example.app.entity.ShiftAssignment;
+
+/**
+ * API 用: 保存済みの shift_assignments の1行。エンティティの関連をたどらずに済むよう ID と名前に平らにする。
+ */
+public class AssignmentView {
+    private final Long id;
+    private final LocalDate workDate;
+    private final String timeSlot;
+    private final Integer requiredCount;
+    private final Long workplaceId;
+    private final String workplaceName;
+    private final Long taskId;
+    private final String taskName;
+    private final Long employeeId;
+    private final String employeeName;
+
+    public AssignmentView(ShiftAssignment row) {
+        this.id = row.getId();
+        this.workDate = row.getWorkDate();
+        this.timeSlot = row.getTimeSlot() != null ? row.getTimeSlot().name() : null;
+        this.requiredCount = row.getRequiredCount();
+        this.workplaceId = row.getWorkplace() != null ? row.getWorkplace().getId() : null;
+        this.workplaceName = row.getWorkplace() != null ? row.getWorkplace().getName() : null;
+        this.taskId = row.getTask() != null ? row.getTask().getId() : null;
+        this.taskName = row.getTask() != null ? row.getTask().getName() : null;
+        this.employeeId = row.getEmployee() != null ? row.getEmployee().getId() : null;
+        this.employeeName = row.getEmployee() != null ? row.getEmployee().getNameKanji() : null;
+    }
+
+    public Long getId() { return id; }
+
+    public LocalDate getWorkDate() { return workDate; }
+
+    public String getTimeSlot() { return timeSlot; }
+
+    public Integer getRequiredCount() { return requiredCount; }
+
+    public Long getWorkplaceId() { return workplaceId; }
+
+    public String getWorkplaceName() { return workplaceName; }
+
+    public Long getTaskId() { return taskId; }
+
+    public String getTaskName() { return taskName; }
+
+    public Long getEmployeeId() { return employeeId; }
+
+    public String getEmployeeName() { return employeeName; }
+}
@@ -0,0 +1,28 @@
+package com.example.app.dto;
+
+import java.util.List;
+
+/**
+ * API 用: 指定日に出勤を希望している社員と、その時間帯。
+ */
+public class AvailableEmployeeView {
+    private final Long id;
+    private final String nameKanji;
+    private final String skillLevel;
+    private final List<String> timeSlots;
+
+    public AvailableEmployeeView(Long id, String nameKanji, String skillLevel, List<String> timeSlots) {
+        this.id = id;
+        this.nameKanji = nameKanji;
+        this.skillLevel = skillLevel;
+        this.timeSlots = timeSlots;
+    }
+
+    public Long getId() { return id; }
+
+    public String getNameKanji() { return nameKanji; }
+
+    public String getSkillLevel() { return skillLevel; }
+
+    public List<String> getTimeSlots() { return timeSlots; }
+}
@@ -0,0 +1,24 @@
+package com.example.app.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 保存済みシフトの集計: ある勤務日に社員が割り当てられたコマ数（AM・PM をそれぞれ1コマ）。
+ */
+public class DailyWorkload {
+    private final LocalDate workDate;
+    private final Long employeeId;
+    private final long slots;
+
+    public DailyWorkload(LocalDate workDate, Long employeeId, long slots) {
+        this.workDate = workDate;
+        this.employeeId = employeeId;
+        this.slots = slots;
+    }
+
+    public LocalDate getWorkDate() { return workDate; }
+
+    public Long getEmployeeId() { return employeeId; }
+
+    public long getSlots() { return slots; }
+}
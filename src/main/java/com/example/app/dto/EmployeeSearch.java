@@ -0,0 +1,50 @@
+package com.example.app.dto;
+
+import com.example.app.entity.PartTimeEmployee;
+
+/**
+ * 社員一覧の絞り込み条件。name は氏名の前方一致（ひらがなだけならふりがな、それ以外は漢字氏名）、空欄の条件は使わない。
+ */
+public class EmployeeSearch {
+    private String name;
+    private PartTimeEmployee.SkillLevel skillLevel;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public PartTimeEmployee.SkillLevel getSkillLevel() { return skillLevel; }
+    public void setSkillLevel(PartTimeEmployee.SkillLevel skillLevel) { this.skillLevel = skillLevel; }
+
+    // 前方一致の LIKE パターン。LIKE の特殊文字は '!' でエスケープする
+    public String getNamePrefixPattern() {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        StringBuilder pattern = new StringBuilder(name.length() + 4);
+        for (char c : name.strip().toCharArray()) {
+            if (c == '!' || c == '%' || c == '_') {
+                pattern.append('!');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    // ひらがな（と長音・空白）だけの氏名は name_hiragana、それ以外は name_kanji を探す
+    public boolean isHiraganaName() {
+        if (name == null || name.isBlank()) {
+            return false;
+        }
+        for (char c : name.strip().toCharArray()) {
+            if ((c < 'ぁ' || c > 'ゖ') && c != 'ー' && !Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 件数キャッシュのキー
+    public String cacheKey() {
+        return skillLevel + "|" + getNamePrefixPattern();
+    }
+}
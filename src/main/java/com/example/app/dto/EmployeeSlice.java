@@ -0,0 +1,30 @@
+package com.example.app.dto;
+
+import java.util.List;
+
+import com.example.app.entity.PartTimeEmployee;
+
+/**
+ * キーセット方式で取得した社員一覧の1ページ分。前後のページへは先頭・末尾の id を境界にして移動する。
+ */
+public class EmployeeSlice {
+    private final List<PartTimeEmployee> content;
+    private final boolean hasPrevious;
+    private final boolean hasNext;
+
+    public EmployeeSlice(List<PartTimeEmployee> content, boolean hasPrevious, boolean hasNext) {
+        this.content = content;
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+    }
+
+    public List<PartTimeEmployee> getContent() { return content; }
+
+    public boolean isHasPrevious() { return hasPrevious; }
+
+    public boolean isHasNext() { return hasNext; }
+
+    public Long getFirstId() { return content.isEmpty() ? null : content.get(0).getId(); }
+
+    public Long getLastId() { return content.isEmpty() ? null : content.get(content.size() - 1).getId(); }
+}
@@ -0,0 +1,67 @@
+package com.example.app.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV 一括登録の結果。エラーのあった行は登録せずに行番号と理由を残し、残りの行の登録は続ける。
+ * 画面に出すエラーは先頭の {@link #MAX_ERRORS} 件まで（件数はすべて数える）。
+ */
+public class ImportResult {
+    public static final int MAX_ERRORS = 1000;
+
+    private int readRows;
+    private int importedRows;
+    private int errorCount;
+    private final List<RowError> errors = new ArrayList<>();
+    private long elapsedNanos;
+
+    public void addRead() {
+        readRows++;
+    }
+
+    public void addImported(int rows) {
+        importedRows += rows;
+    }
+
+    public void addError(int line, String message) {
+        errorCount++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    public void setElapsedNanos(long elapsedNanos) { this.elapsedNanos = elapsedNanos; }
+
+    // ヘッダーを除いて読んだ行数
+    public int getReadRows() { return readRows; }
+
+    public int getImportedRows() { return importedRows; }
+
+    public int getErrorCount() { return errorCount; }
+
+    public List<RowError> getErrors() { return errors; }
+
+    public boolean isErrorsTruncated() { return errorCount > errors.size(); }
+
+    public double getElapsedMillis() { return elapsedNanos / 1_000_000.0; }
+
+    public long getRowsPerSecond() {
+        return elapsedNanos > 0 ? Math.round(readRows * 1_000_000_000.0 / elapsedNanos) : 0;
+    }
+
+    public static class RowError {
+        private final int line;
+        private final String message;
+
+        public RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        // ファイル上の行番号（ヘッダーが1行目）
+        public int getLine() { return line; }
+
+        public String getMessage() { return message; }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.app.dto;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+
+/**
+ * 出勤予定者一覧の1行。社員の引き当てをテンプレートではなくコントローラーで済ませる。
+ */
+public class PreferredShiftRow {
+    private static final String UNKNOWN = "不明";
+
+    private final String employeeName;
+    private final String skillLevel;
+    private final String timeSlot;
+
+    public PreferredShiftRow(PreferredShift shift, PartTimeEmployee employee) {
+        this.employeeName = employee != null && employee.getNameKanji() != null ? employee.getNameKanji() : UNKNOWN;
+        this.skillLevel = employee != null && employee.getSkillLevel() != null
+                ? employee.getSkillLevel().name() : UNKNOWN;
+        this.timeSlot = shift.getTimeSlot() != null ? shift.getTimeSlot().name() : UNKNOWN;
+    }
+
+    public String getEmployeeName() { return employeeName; }
+
+    public String getSkillLevel() { return skillLevel; }
+
+    public String getTimeSlot() { return timeSlot; }
+}
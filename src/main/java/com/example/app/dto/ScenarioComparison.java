@@ -0,0 +1,114 @@
+package com.example.app.dto;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.Workplace;
+
+/**
+ * 下書きの案を横に並べて比べる画面の表。列が案、行が職場で、セルは {@link ShiftAssignmentRow}。
+ * 列ごとに必要人数・割り当て人数・不足・出勤する社員数（重複なし）の合計も持つ。
+ */
+public class ScenarioComparison {
+    private final List<Column> columns;
+    private final List<Row> rows;
+
+    private ScenarioComparison(List<Column> columns, List<Row> rows) {
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * @param names 案の名前（plans と同じ順）
+     * @param plans 案ごとの職場ID → 割り当て
+     */
+    public static ScenarioComparison of(List<String> names, List<Workplace> workplaces,
+            List<Map<Long, ShiftAssignmentDto>> plans) {
+        List<Column> columns = new ArrayList<>(plans.size());
+        for (int i = 0; i < plans.size(); i++) {
+            columns.add(Column.of(names.get(i), plans.get(i)));
+        }
+        List<Row> rows = new ArrayList<>();
+        for (Workplace workplace : workplaces) {
+            List<ShiftAssignmentRow> cells = new ArrayList<>(plans.size());
+            boolean any = false;
+            for (Map<Long, ShiftAssignmentDto> plan : plans) {
+                ShiftAssignmentDto dto = plan.get(workplace.getId());
+                any |= dto != null && (dto.getAmCount() > 0 || dto.getPmCount() > 0);
+                cells.add(ShiftAssignmentRow.of(workplace, dto));
+            }
+            // どの案でも人数を求めていない職場は出さない
+            if (any) {
+                rows.add(new Row(workplace.getName(), cells));
+            }
+        }
+        return new ScenarioComparison(columns, rows);
+    }
+
+    public List<Column> getColumns() { return columns; }
+
+    public List<Row> getRows() { return rows; }
+
+    public static class Column {
+        private final String name;
+        private final int required;
+        private final int assigned;
+        private final int employees;
+
+        private Column(String name, int required, int assigned, int employees) {
+            this.name = name;
+            this.required = required;
+            this.assigned = assigned;
+            this.employees = employees;
+        }
+
+        static Column of(String name, Map<Long, ShiftAssignmentDto> plan) {
+            int required = 0;
+            int assigned = 0;
+            Set<Long> working = new HashSet<>();
+            for (ShiftAssignmentDto dto : plan.values()) {
+                required += dto.getAmCount() + dto.getPmCount();
+                assigned += count(dto.getAmEmployees(), working) + count(dto.getPmEmployees(), working);
+            }
+            return new Column(name, required, assigned, working.size());
+        }
+
+        private static int count(List<PartTimeEmployee> employees, Set<Long> working) {
+            if (employees == null) {
+                return 0;
+            }
+            for (PartTimeEmployee employee : employees) {
+                working.add(employee.getId());
+            }
+            return employees.size();
+        }
+
+        public String getName() { return name; }
+
+        public int getRequired() { return required; }
+
+        public int getAssigned() { return assigned; }
+
+        public int getShortfall() { return Math.max(required - assigned, 0); }
+
+        public int getEmployees() { return employees; }
+    }
+
+    public static class Row {
+        private final String workplaceName;
+        private final List<ShiftAssignmentRow> cells;
+
+        private Row(String workplaceName, List<ShiftAssignmentRow> cells) {
+            this.workplaceName = workplaceName;
+            this.cells = cells;
+        }
+
+        public String getWorkplaceName() { return workplaceName; }
+
+        public List<ShiftAssignmentRow> getCells() { return cells; }
+    }
+}
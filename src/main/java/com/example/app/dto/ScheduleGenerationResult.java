@@ -0,0 +1,52 @@
+package com.example.app.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 期間指定のシフト生成結果。日ごとの割り当てと、並列実行の所要時間をまとめる。
+ */
+public class ScheduleGenerationResult {
+    private final Map<LocalDate, Map<Long, ShiftAssignmentDto>> plans;
+    private final List<LocalDate> skippedDates;
+    private final int removedByDayLimit;
+    private final int backfilled;
+    private final int savedRows;
+    private final long wallNanos;
+    private final long dayNanos;
+    private final int parallelism;
+
+    public ScheduleGenerationResult(Map<LocalDate, Map<Long, ShiftAssignmentDto>> plans, List<LocalDate> skippedDates,
+            int removedByDayLimit, int backfilled, int savedRows, long wallNanos, long dayNanos,
+            int parallelism) {
+        this.plans = plans;
+        this.skippedDates = skippedDates;
+        this.removedByDayLimit = removedByDayLimit;
+        this.backfilled = backfilled;
+        this.savedRows = savedRows;
+        this.wallNanos = wallNanos;
+        this.dayNanos = dayNanos;
+        this.parallelism = parallelism;
+    }
+
+    public Map<LocalDate, Map<Long, ShiftAssignmentDto>> getPlans() { return plans; }
+
+    // 出勤希望の対象外（日曜日）でスキップした日付
+    public List<LocalDate> getSkippedDates() { return skippedDates; }
+
+    // 勤務日数の上限により外した割り当て数と、そのうち他の社員で埋め直せた数
+    public int getRemovedByDayLimit() { return removedByDayLimit; }
+
+    public int getBackfilled() { return backfilled; }
+
+    public int getSavedRows() { return savedRows; }
+
+    // 並列に解いた実時間と、並列実行中に測った各日の所要時間の合計。
+    // 合計は他の日と CPU を取り合った状態での値なので、逐次実行した場合の時間や高速化率の代わりにはならない
+    public double getWallMillis() { return wallNanos / 1_000_000.0; }
+
+    public double getDayMillis() { return dayNanos / 1_000_000.0; }
+
+    public int getParallelism() { return parallelism; }
+}
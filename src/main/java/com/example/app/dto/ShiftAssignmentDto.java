@@ -0,0 +1,42 @@
+package com.example.app.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.app.entity.PartTimeEmployee;
+
+public class ShiftAssignmentDto {
+    private Long workplaceId;
+    private String workplaceName;
+    private int amCount;
+    private int pmCount;
+    private List<String> tasks = new ArrayList<>();
+    private List<PartTimeEmployee> amEmployees = new ArrayList<>();
+    private List<PartTimeEmployee> pmEmployees = new ArrayList<>();
+    private List<String> warnings = new ArrayList<>();
+
+    // Getters and Setters
+    public Long getWorkplaceId() { return workplaceId; }
+    public void setWorkplaceId(Long workplaceId) { this.workplaceId = workplaceId; }
+
+    public String getWorkplaceName() { return workplaceName; }
+    public void setWorkplaceName(String workplaceName) { this.workplaceName = workplaceName; }
+
+    public int getAmCount() { return amCount; }
+    public void setAmCount(int amCount) { this.amCount = amCount; }
+
+    public int getPmCount() { return pmCount; }
+    public void setPmCount(int pmCount) { this.pmCount = pmCount; }
+
+    public List<String> getTasks() { return tasks; }
+    public void setTasks(List<String> tasks) { this.tasks = tasks; }
+
+    public List<PartTimeEmployee> getAmEmployees() { return amEmployees; }
+    public void setAmEmployees(List<PartTimeEmployee> amEmployees) { this.amEmployees = amEmployees; }
+
+    public List<PartTimeEmployee> getPmEmployees() { return pmEmployees; }
+    public void setPmEmployees(List<PartTimeEmployee> pmEmployees) { this.pmEmployees = pmEmployees; }
+
+    public List<String> getWarnings() { return warnings; }
+    public void setWarnings(List<String> warnings) { this.warnings = warnings; }
+}
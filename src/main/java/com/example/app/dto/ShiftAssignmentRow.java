@@ -0,0 +1,77 @@
+package com.example.app.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.Workplace;
+
+/**
+ * 割り当て結果画面の1行（1日 × 1職場）。表示する文字列をコントローラーで組み立てておき、
+ * テンプレートではセルごとに Map の参照やリストの走査をしないようにする。
+ */
+public class ShiftAssignmentRow {
+    private static final String NONE = "なし";
+
+    private final LocalDate workDate;
+    private final String workplaceName;
+    private final int amCount;
+    private final int pmCount;
+    private final int amAssigned;
+    private final int pmAssigned;
+    private final String amEmployeeNames;
+    private final String pmEmployeeNames;
+    private final List<String> warnings;
+
+    private ShiftAssignmentRow(LocalDate workDate, String workplaceName, ShiftAssignmentDto dto) {
+        this.workDate = workDate;
+        this.workplaceName = workplaceName != null ? workplaceName : "不明";
+        this.amCount = dto != null ? dto.getAmCount() : 0;
+        this.pmCount = dto != null ? dto.getPmCount() : 0;
+        this.amAssigned = dto != null && dto.getAmEmployees() != null ? dto.getAmEmployees().size() : 0;
+        this.pmAssigned = dto != null && dto.getPmEmployees() != null ? dto.getPmEmployees().size() : 0;
+        this.amEmployeeNames = joinNames(dto != null ? dto.getAmEmployees() : null);
+        this.pmEmployeeNames = joinNames(dto != null ? dto.getPmEmployees() : null);
+        this.warnings = dto != null && dto.getWarnings() != null ? List.copyOf(dto.getWarnings()) : List.of();
+    }
+
+    public static ShiftAssignmentRow of(Workplace workplace, ShiftAssignmentDto dto) {
+        return new ShiftAssignmentRow(null, workplace.getName(), dto);
+    }
+
+    public static ShiftAssignmentRow of(LocalDate workDate, Workplace workplace, ShiftAssignmentDto dto) {
+        return new ShiftAssignmentRow(workDate, workplace.getName(), dto);
+    }
+
+    private static String joinNames(List<PartTimeEmployee> employees) {
+        if (employees == null || employees.isEmpty()) {
+            return NONE;
+        }
+        StringBuilder names = new StringBuilder();
+        for (PartTimeEmployee employee : employees) {
+            if (names.length() > 0) {
+                names.append(", ");
+            }
+            names.append(employee.getNameKanji());
+        }
+        return names.toString();
+    }
+
+    public LocalDate getWorkDate() { return workDate; }
+
+    public String getWorkplaceName() { return workplaceName; }
+
+    public int getAmCount() { return amCount; }
+
+    public int getPmCount() { return pmCount; }
+
+    public int getAmAssigned() { return amAssigned; }
+
+    public int getPmAssigned() { return pmAssigned; }
+
+    public String getAmEmployeeNames() { return amEmployeeNames; }
+
+    public String getPmEmployeeNames() { return pmEmployeeNames; }
+
+    public List<String> getWarnings() { return warnings; }
+}
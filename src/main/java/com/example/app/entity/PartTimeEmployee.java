@@ -9,10 +9,15 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "part_time_employees")
+@Table(name = "part_time_employees", indexes = {
+        // 一覧の絞り込み（氏名の前方一致・スキルレベル）。InnoDB の副インデックスは主キーを含むので id 順にも読める
+        @Index(name = "idx_part_time_employees_name_kanji", columnList = "name_kanji"),
+        @Index(name = "idx_part_time_employees_name_hiragana", columnList = "name_hiragana"),
+        @Index(name = "idx_part_time_employees_skill_level", columnList = "skill_level")})
 public class PartTimeEmployee {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
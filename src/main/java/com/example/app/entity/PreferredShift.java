@@ -7,10 +7,14 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "preferred_shifts")
+@Table(name = "preferred_shifts", indexes = {
+        // 曜日（・時間帯）ごとの希望者の検索
+        @Index(name = "idx_preferred_shifts_day_slot_employee", columnList = "day_of_week, time_slot, employee_id"),
+        @Index(name = "idx_preferred_shifts_employee", columnList = "employee_id")})
 public class PreferredShift {
 
     @Id
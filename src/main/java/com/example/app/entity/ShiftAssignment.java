@@ -9,12 +9,19 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
-@Table(name = "shift_assignments")
+@Table(name = "shift_assignments", indexes = {
+        // 日付（・期間）ごとの保存済みシフトの検索と、日単位の置き換え
+        @Index(name = "idx_shift_assignments_date_workplace", columnList = "work_date, workplace_id")},
+        // 同じ社員を同じ日・時間帯に二重に割り当てない（ShiftConflictIndex で保存前にも確かめる）
+        uniqueConstraints = @UniqueConstraint(name = "uk_shift_assignments_date_slot_employee",
+                columnNames = {"work_date", "time_slot", "employee_id"}))
 public class ShiftAssignment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,93 @@
+package com.example.app.repository;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+
+/**
+ * CSV 一括登録用に、社員と出勤希望を JDBC のバッチ INSERT で書き込む。
+ * 1回の呼び出し（1チャンク）が1トランザクションで、失敗したチャンクはすべてロールバックされる。
+ */
+@Repository
+public class BulkImportRepository {
+    private static final int BATCH_SIZE = 1000;
+    private static final String INSERT_EMPLOYEE_SQL = "INSERT INTO part_time_employees "
+            + "(name_kanji, name_hiragana, age, birthdate, gender, email, phone, skill_level) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PREFERRED_SHIFT_SQL = "INSERT INTO preferred_shifts "
+            + "(employee_id, day_of_week, time_slot) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkImportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public int insertEmployees(List<PartTimeEmployee> employees) {
+        jdbcTemplate.batchUpdate(INSERT_EMPLOYEE_SQL, employees, BATCH_SIZE, (ps, employee) -> {
+            ps.setString(1, employee.getNameKanji());
+            ps.setString(2, employee.getNameHiragana());
+            if (employee.getAge() != null) {
+                ps.setInt(3, employee.getAge());
+            } else {
+                ps.setNull(3, Types.INTEGER);
+            }
+            if (employee.getBirthdate() != null) {
+                ps.setDate(4, Date.valueOf(employee.getBirthdate()));
+            } else {
+                ps.setNull(4, Types.DATE);
+            }
+            ps.setString(5, employee.getGender());
+            ps.setString(6, employee.getEmail());
+            ps.setString(7, employee.getPhone());
+            ps.setString(8, employee.getSkillLevel() != null ? employee.getSkillLevel().name() : null);
+        });
+        return employees.size();
+    }
+
+    @Transactional
+    public int insertPreferredShifts(List<PreferredShift> shifts) {
+        jdbcTemplate.batchUpdate(INSERT_PREFERRED_SHIFT_SQL, shifts, BATCH_SIZE, (ps, shift) -> {
+            ps.setLong(1, shift.getEmployeeId());
+            ps.setString(2, shift.getDayOfWeek().name());
+            ps.setString(3, shift.getTimeSlot().name());
+        });
+        return shifts.size();
+    }
+
+    public Set<Long> findEmployeeIds() {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM part_time_employees", Long.class));
+    }
+
+    /**
+     * 登録済みの出勤希望を {@link #preferredShiftKey} の値の集合で返す。
+     */
+    public Set<Long> findPreferredShiftKeys() {
+        Set<Long> keys = new HashSet<>();
+        jdbcTemplate.query("SELECT employee_id, day_of_week, time_slot FROM preferred_shifts", rs -> {
+            Long employeeId = rs.getObject(1, Long.class);
+            String day = rs.getString(2);
+            String slot = rs.getString(3);
+            if (employeeId != null && day != null && slot != null) {
+                keys.add(preferredShiftKey(employeeId,
+                        PreferredShift.DayOfWeek.valueOf(day), PreferredShift.TimeSlot.valueOf(slot)));
+            }
+        });
+        return keys;
+    }
+
+    // 社員・曜日・時間帯の組を1つの long にまとめる（重複判定用）
+    public static long preferredShiftKey(long employeeId, PreferredShift.DayOfWeek day, PreferredShift.TimeSlot slot) {
+        return employeeId * 16 + day.ordinal() * 2 + slot.ordinal();
+    }
+}
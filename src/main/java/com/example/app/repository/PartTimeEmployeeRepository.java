@@ -1,8 +1,45 @@
 package com.example.app.repository;
 
+import static com.example.app.repository.PartTimeEmployeeSpecifications.idGreaterThan;
+import static com.example.app.repository.PartTimeEmployeeSpecifications.idGreaterThanOrEqualTo;
+import static com.example.app.repository.PartTimeEmployeeSpecifications.idLessThan;
+import static com.example.app.repository.PartTimeEmployeeSpecifications.matching;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import com.example.app.dto.EmployeeSearch;
 import com.example.app.entity.PartTimeEmployee;
 
-public interface PartTimeEmployeeRepository extends JpaRepository<PartTimeEmployee, Integer> {
+/**
+ * 一覧はキーセット方式でページングする（id を境界にして前後の limit 件を取る）。
+ * OFFSET を使わないので、何ページ目でも主キーの範囲検索1回で済む。
+ * 絞り込みは {@link PartTimeEmployeeSpecifications} で、指定された条件だけを WHERE に入れる。
+ */
+public interface PartTimeEmployeeRepository extends JpaRepository<PartTimeEmployee, Integer>,
+        JpaSpecificationExecutor<PartTimeEmployee> {
+
+    default List<PartTimeEmployee> findPageAfter(long afterId, EmployeeSearch search, Limit limit) {
+        return findBy(matching(search).and(idGreaterThan(afterId)),
+                query -> query.sortBy(Sort.by(Sort.Direction.ASC, "id")).limit(limit.max()).all());
+    }
+
+    // 前のページ。id の降順で返すので、呼び出し側で並べ直す
+    default List<PartTimeEmployee> findPageBefore(long beforeId, EmployeeSearch search, Limit limit) {
+        return findBy(matching(search).and(idLessThan(beforeId)),
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "id")).limit(limit.max()).all());
+    }
+
+    // fromId 以降に条件に合う社員がいるか（前のページへ戻ったときの「次へ」の有無）
+    default boolean existsFrom(long fromId, EmployeeSearch search) {
+        return exists(matching(search).and(idGreaterThanOrEqualTo(fromId)));
+    }
+
+    default long countBySearch(EmployeeSearch search) {
+        return count(matching(search));
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.app.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.app.dto.EmployeeSearch;
+import com.example.app.entity.PartTimeEmployee;
+
+/**
+ * 社員一覧の絞り込み条件。指定のない条件は WHERE に入れず（「:x IS NULL OR ...」にしない）、
+ * 氏名はどちらか一方の列だけを前方一致で探すので、スキル・氏名それぞれのインデックスで引ける。
+ */
+public final class PartTimeEmployeeSpecifications {
+    private PartTimeEmployeeSpecifications() {
+    }
+
+    public static Specification<PartTimeEmployee> matching(EmployeeSearch search) {
+        List<Specification<PartTimeEmployee>> conditions = new ArrayList<>(2);
+        PartTimeEmployee.SkillLevel skillLevel = search.getSkillLevel();
+        if (skillLevel != null) {
+            conditions.add((root, query, cb) -> cb.equal(root.get("skillLevel"), skillLevel));
+        }
+        String prefix = search.getNamePrefixPattern();
+        if (prefix != null) {
+            String column = search.isHiraganaName() ? "nameHiragana" : "nameKanji";
+            conditions.add((root, query, cb) -> cb.like(root.get(column), prefix, '!'));
+        }
+        return Specification.allOf(conditions);
+    }
+
+    public static Specification<PartTimeEmployee> idGreaterThan(long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<PartTimeEmployee> idGreaterThanOrEqualTo(long id) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("id"), id);
+    }
+
+    public static Specification<PartTimeEmployee> idLessThan(long id) {
+        return (root, query, cb) -> cb.lessThan(root.get("id"), id);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.app.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.app.entity.ShiftAssignment;
+
+/**
+ * shift_assignments を JDBC のバッチ INSERT でまとめて書き込む。
+ * IDENTITY 採番のエンティティを JPA で保存すると Hibernate のバッチが効かないため、
+ * 1日分の計画はこちらで置き換える。
+ */
+@Repository
+public class ShiftAssignmentBatchRepository {
+    private static final int BATCH_SIZE = 500;
+    private static final String DELETE_DAY_SQL = "DELETE FROM shift_assignments WHERE work_date = ?";
+    private static final String INSERT_SQL = "INSERT INTO shift_assignments "
+            + "(work_date, workplace_id, task_id, time_slot, required_count, employee_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShiftAssignmentBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 指定日の計画を削除してから書き込む。失敗した場合は元の計画が残る
+    @Transactional
+    public int replaceDay(LocalDate workDate, List<ShiftAssignment> rows) {
+        return replaceDays(Map.of(workDate, rows));
+    }
+
+    @Transactional
+    public int replaceDays(Map<LocalDate, List<ShiftAssignment>> plans) {
+        if (plans.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(DELETE_DAY_SQL, List.copyOf(plans.keySet()), BATCH_SIZE,
+                (ps, workDate) -> ps.setDate(1, Date.valueOf(workDate)));
+        List<ShiftAssignment> rows = plans.values().stream().flatMap(List::stream).toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setDate(1, Date.valueOf(row.getWorkDate()));
+            setId(ps, 2, row.getWorkplace() != null ? row.getWorkplace().getId() : null);
+            setId(ps, 3, row.getTask() != null ? row.getTask().getId() : null);
+            ps.setString(4, row.getTimeSlot() != null ? row.getTimeSlot().name() : null);
+            if (row.getRequiredCount() != null) {
+                ps.setInt(5, row.getRequiredCount());
+            } else {
+                ps.setNull(5, Types.INTEGER);
+            }
+            setId(ps, 6, row.getEmployee() != null ? row.getEmployee().getId() : null);
+        });
+        return rows.size();
+    }
+
+    private static void setId(PreparedStatement ps, int index, Long id) throws SQLException {
+        if (id != null) {
+            ps.setLong(index, id);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+}
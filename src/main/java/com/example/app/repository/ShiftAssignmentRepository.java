@@ -2,13 +2,39 @@ package com.example.app.repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.app.dto.DailyWorkload;
 import com.example.app.entity.ShiftAssignment;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ShiftAssignmentRepository extends JpaRepository<ShiftAssignment, Long> {
     List<ShiftAssignment> findByWorkDate(LocalDate workDate);
-}
\ No newline at end of file
+
+    // 職場・タスク・社員をまとめて取得する（行ごとの追加 SELECT を避ける）
+    @Query("SELECT a FROM ShiftAssignment a LEFT JOIN FETCH a.workplace LEFT JOIN FETCH a.task "
+            + "LEFT JOIN FETCH a.employee WHERE a.workDate = :workDate ORDER BY a.id")
+    List<ShiftAssignment> findDetailedByWorkDate(@Param("workDate") LocalDate workDate);
+
+    // エクスポート用。読み取り専用トランザクション内で使い、読み終えた行は呼び出し側で detach する
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT a FROM ShiftAssignment a LEFT JOIN FETCH a.workplace LEFT JOIN FETCH a.task "
+            + "LEFT JOIN FETCH a.employee WHERE a.workDate BETWEEN :from AND :to ORDER BY a.workDate, a.timeSlot, a.id")
+    Stream<ShiftAssignment> streamByWorkDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // 勤務日・社員ごとのコマ数。一意制約 (work_date, time_slot, employee_id) の索引だけで数えられる
+    @Query("SELECT new com.example.app.dto.DailyWorkload(a.workDate, a.employee.id, COUNT(a)) FROM ShiftAssignment a "
+            + "WHERE a.workDate BETWEEN :from AND :to AND a.employee IS NOT NULL GROUP BY a.workDate, a.employee.id")
+    List<DailyWorkload> countSlotsByWorkDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
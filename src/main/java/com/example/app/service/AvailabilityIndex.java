@@ -0,0 +1,499 @@
+package com.example.app.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+import com.example.app.repository.PreferredShiftRepository;
+
+/**
+ * 曜日 × 時間帯ごとの出勤希望者を社員IDのビットセットで保持する索引。
+ * 人数はスキルレベル別に差分で維持するため、件数の問い合わせは O(1) で答えられる。
+ */
+@Component
+public class AvailabilityIndex {
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+    static final int DAYS = PreferredShift.DayOfWeek.values().length;
+    static final int SLOTS = PreferredShift.TimeSlot.values().length;
+    // スキル未設定の社員と、名簿にいない社員（削除済みなど）の希望はそれぞれ別のバケットに数える
+    static final int SKILLS = PartTimeEmployee.SkillLevel.values().length + 2;
+    private static final byte UNKNOWN_SKILL = (byte) (SKILLS - 2);
+    private static final byte ABSENT = (byte) (SKILLS - 1);
+
+    private final PreferredShiftRepository preferredShiftRepository;
+    private final RosterSnapshotService rosterSnapshotService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final BitSet[][] available = new BitSet[DAYS][SLOTS];
+    private final int[][][] slotCounts = new int[DAYS][SLOTS][SKILLS];
+    private final int[][] dayCounts = new int[DAYS][SKILLS];
+    // 社員IDごとの希望ビットマスク (bit = day * SLOTS + slot) とスキルコード
+    private int[] masks = new int[0];
+    private byte[] skills = new byte[0];
+    private long version;
+    private volatile Instant changedAt = Instant.EPOCH;
+    private boolean built;
+    // 名簿・索引の版が変わるまで使い回す
+    private volatile CompactRoster compact;
+
+    public AvailabilityIndex(PreferredShiftRepository preferredShiftRepository,
+            RosterSnapshotService rosterSnapshotService,
+            PlatformTransactionManager transactionManager) {
+        this.preferredShiftRepository = preferredShiftRepository;
+        this.rosterSnapshotService = rosterSnapshotService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // 名簿にいる社員のうち、その時間帯を希望している人数
+    public int count(PreferredShift.DayOfWeek day, PreferredShift.TimeSlot slot) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            return rosterTotal(slotCounts[day.ordinal()][slot.ordinal()]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(PreferredShift.DayOfWeek day, PreferredShift.TimeSlot slot, PartTimeEmployee.SkillLevel skill) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            return slotCounts[day.ordinal()][slot.ordinal()][skillCode(skill)];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // その日に AM・PM のいずれかを希望している社員数（重複なし）
+    public int countDay(PreferredShift.DayOfWeek day, PartTimeEmployee.SkillLevel skill) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            return dayCounts[day.ordinal()][skillCode(skill)];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 差分で維持している人数から、その曜日の人数集計を返す。
+     * {@link HeadcountAggregator} と同じく、名簿にいない社員は数えず、スキル未設定の社員は時間帯別にだけ数える。
+     */
+    public Headcount headcount(PreferredShift.DayOfWeek day) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            int d = day.ordinal();
+            return new Headcount(
+                    rosterTotal(slotCounts[d][PreferredShift.TimeSlot.AM.ordinal()]),
+                    rosterTotal(slotCounts[d][PreferredShift.TimeSlot.PM.ordinal()]),
+                    dayCounts[d][PartTimeEmployee.SkillLevel.LEADER.ordinal()],
+                    dayCounts[d][PartTimeEmployee.SkillLevel.GENERAL.ordinal()],
+                    dayCounts[d][PartTimeEmployee.SkillLevel.NEWCOMER.ordinal()]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BitSet employeeIds(PreferredShift.DayOfWeek day, PreferredShift.TimeSlot slot) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            return (BitSet) available[day.ordinal()][slot.ordinal()].clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 画面・割り当て処理向けに、索引から出勤希望シフトを社員ID順に組み立てる
+    public List<PreferredShift> shiftsFor(PreferredShift.DayOfWeek day) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            int d = day.ordinal();
+            int dayMask = ((1 << SLOTS) - 1) << (d * SLOTS);
+            List<PreferredShift> shifts = new ArrayList<>();
+            for (int id = 0; id < masks.length; id++) {
+                int mask = masks[id] & dayMask;
+                if (mask == 0) {
+                    continue;
+                }
+                for (PreferredShift.TimeSlot slot : PreferredShift.TimeSlot.values()) {
+                    if ((mask & bit(d, slot.ordinal())) != 0) {
+                        PreferredShift shift = new PreferredShift();
+                        shift.setEmployeeId((long) id);
+                        shift.setDayOfWeek(day);
+                        shift.setTimeSlot(slot);
+                        shifts.add(shift);
+                    }
+                }
+            }
+            return shifts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 名簿スナップショットの社員について、スキルと希望ビットマスクを列指向にまとめたもの。
+     * 名簿か索引が変わったときだけ作り直す。
+     */
+    public CompactRoster compactRoster() {
+        ensureBuilt();
+        RosterSnapshot roster = rosterSnapshotService.current();
+        lock.readLock().lock();
+        try {
+            CompactRoster current = compact;
+            if (current != null && current.isCurrent(roster.getVersion(), version)) {
+                return current;
+            }
+            long start = System.nanoTime();
+            int[] ids = new int[roster.getEmployees().size()];
+            int n = 0;
+            for (Long id : roster.getEmployees().keySet()) {
+                ids[n++] = Math.toIntExact(id);
+            }
+            Arrays.sort(ids);
+            byte[] skillCodes = new byte[n];
+            short[] dayMasks = new short[n];
+            for (int i = 0; i < n; i++) {
+                int id = ids[i];
+                // スキルは名簿（エンティティ）を正とする
+                skillCodes[i] = ShiftAssignmentEngine.skillCode(roster.getEmployees().get((long) id).getSkillLevel());
+                dayMasks[i] = id < masks.length ? (short) masks[id] : 0;
+            }
+            current = new CompactRoster(roster.getVersion(), version, ids, skillCodes, dayMasks);
+            compact = current;
+            logger.debug("Compact roster built: {} employees in {} us", n, (System.nanoTime() - start) / 1_000);
+            return current;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getVersion() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 最後に索引が変わった時刻（HTTP の Last-Modified 用）
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    // 社員の希望シフトを丸ごと置き換える。絶対値で反映するので再適用しても結果は変わらない
+    public void replaceEmployee(long employeeId, Collection<PreferredShift> shifts) {
+        int mask = 0;
+        for (PreferredShift shift : shifts) {
+            if (shift.getDayOfWeek() != null && shift.getTimeSlot() != null) {
+                mask |= bit(shift.getDayOfWeek().ordinal(), shift.getTimeSlot().ordinal());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            int id = Math.toIntExact(employeeId);
+            ensureCapacity(id);
+            applyMask(id, mask, skills[id]);
+            markChanged();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeEmployee(long employeeId) {
+        lock.writeLock().lock();
+        try {
+            if (!built || employeeId >= masks.length) {
+                return;
+            }
+            int id = Math.toIntExact(employeeId);
+            applyMask(id, 0, ABSENT);
+            markChanged();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateSkill(long employeeId, PartTimeEmployee.SkillLevel skill) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            int id = Math.toIntExact(employeeId);
+            ensureCapacity(id);
+            applyMask(id, masks[id], skillCode(skill));
+            markChanged();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            load();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 差分で維持している希望・スキル・人数を、名簿と出勤希望の全件から作り直した値と突き合わせる。
+     * 食い違った社員と人数の数を返す。照合中に索引が更新された場合は判定できないので -1 を返す。
+     * DB の読み込みはロックの外で行うので、照合の間も読み取りと差分の反映は止まらない。
+     */
+    public int verify() {
+        long before;
+        lock.readLock().lock();
+        try {
+            if (!built) {
+                return 0;
+            }
+            before = version;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int[][] expected = readOnlyTransaction.execute(status -> {
+            RosterSnapshot roster = rosterSnapshotService.current();
+            List<PreferredShift> shifts = preferredShiftRepository.findAll();
+            int size = 0;
+            for (Long id : roster.getEmployees().keySet()) {
+                size = Math.max(size, Math.toIntExact(id) + 1);
+            }
+            for (PreferredShift shift : shifts) {
+                if (shift.getEmployeeId() != null) {
+                    size = Math.max(size, Math.toIntExact(shift.getEmployeeId()) + 1);
+                }
+            }
+            int[] expectedMasks = new int[size];
+            int[] expectedSkills = new int[size];
+            Arrays.fill(expectedSkills, ABSENT);
+            for (PartTimeEmployee employee : roster.getEmployees().values()) {
+                expectedSkills[Math.toIntExact(employee.getId())] = skillCode(employee.getSkillLevel());
+            }
+            for (PreferredShift shift : shifts) {
+                if (shift.getEmployeeId() != null && shift.getDayOfWeek() != null && shift.getTimeSlot() != null) {
+                    expectedMasks[Math.toIntExact(shift.getEmployeeId())] |=
+                            bit(shift.getDayOfWeek().ordinal(), shift.getTimeSlot().ordinal());
+                }
+            }
+            return new int[][] {expectedMasks, expectedSkills};
+        });
+        int[] expectedMasks = expected[0];
+        int[] expectedSkills = expected[1];
+
+        lock.readLock().lock();
+        try {
+            if (version != before) {
+                return -1;
+            }
+            int mismatches = 0;
+            int[][][] expectedSlotCounts = new int[DAYS][SLOTS][SKILLS];
+            int[][] expectedDayCounts = new int[DAYS][SKILLS];
+            for (int id = 0, n = Math.max(masks.length, expectedMasks.length); id < n; id++) {
+                int expectedMask = id < expectedMasks.length ? expectedMasks[id] : 0;
+                int expectedSkill = id < expectedSkills.length ? expectedSkills[id] : ABSENT;
+                int mask = id < masks.length ? masks[id] : 0;
+                // 希望がなければスキルは人数に効かない
+                if (mask != expectedMask || (mask != 0 && skills[id] != expectedSkill)) {
+                    if (mismatches < 10) {
+                        logger.warn("Availability index drift for employee {}: mask {} (expected {}), skill {} (expected {})",
+                                id, mask, expectedMask, mask != 0 ? skills[id] : -1, expectedSkill);
+                    }
+                    mismatches++;
+                }
+                for (int d = 0; d < DAYS; d++) {
+                    boolean anyDay = false;
+                    for (int s = 0; s < SLOTS; s++) {
+                        boolean set = (expectedMask & bit(d, s)) != 0;
+                        if (set) {
+                            expectedSlotCounts[d][s][expectedSkill]++;
+                            anyDay = true;
+                        }
+                        if (set != available[d][s].get(id)) {
+                            mismatches++;
+                        }
+                    }
+                    if (anyDay) {
+                        expectedDayCounts[d][expectedSkill]++;
+                    }
+                }
+            }
+            for (int d = 0; d < DAYS; d++) {
+                for (int k = 0; k < SKILLS; k++) {
+                    for (int s = 0; s < SLOTS; s++) {
+                        if (slotCounts[d][s][k] != expectedSlotCounts[d][s][k]) {
+                            logger.warn("Availability count drift at day {} slot {} skill {}: {} (expected {})",
+                                    d, s, k, slotCounts[d][s][k], expectedSlotCounts[d][s][k]);
+                            mismatches++;
+                        }
+                    }
+                    if (dayCounts[d][k] != expectedDayCounts[d][k]) {
+                        logger.warn("Availability day count drift at day {} skill {}: {} (expected {})",
+                                d, k, dayCounts[d][k], expectedDayCounts[d][k]);
+                        mismatches++;
+                    }
+                }
+            }
+            return mismatches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureBuilt() {
+        lock.readLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                load();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        for (int d = 0; d < DAYS; d++) {
+            for (int s = 0; s < SLOTS; s++) {
+                available[d][s] = new BitSet();
+                Arrays.fill(slotCounts[d][s], 0);
+            }
+            Arrays.fill(dayCounts[d], 0);
+        }
+        masks = new int[0];
+        skills = new byte[0];
+
+        // 名簿の再読み込みが必要な場合も同じ読み取り専用トランザクション（1本のコネクション）で読む
+        List<PreferredShift> shifts = readOnlyTransaction.execute(status -> {
+            for (PartTimeEmployee employee : rosterSnapshotService.current().getEmployees().values()) {
+                int id = Math.toIntExact(employee.getId());
+                ensureCapacity(id);
+                skills[id] = skillCode(employee.getSkillLevel());
+            }
+            return preferredShiftRepository.findAll();
+        });
+
+        int[] loaded = new int[masks.length];
+        for (PreferredShift shift : shifts) {
+            if (shift.getEmployeeId() == null || shift.getDayOfWeek() == null || shift.getTimeSlot() == null) {
+                continue;
+            }
+            int id = Math.toIntExact(shift.getEmployeeId());
+            if (id >= loaded.length) {
+                ensureCapacity(id);
+                loaded = Arrays.copyOf(loaded, masks.length);
+            }
+            loaded[id] |= bit(shift.getDayOfWeek().ordinal(), shift.getTimeSlot().ordinal());
+        }
+        for (int id = 0; id < loaded.length; id++) {
+            if (loaded[id] != 0) {
+                applyMask(id, loaded[id], skills[id]);
+            }
+        }
+        built = true;
+        markChanged();
+        logger.info("Availability index built from {} preferred shifts in {} ms",
+                shifts.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // 書き込みロックを持った状態で呼ぶ
+    private void markChanged() {
+        version++;
+        changedAt = Instant.now();
+    }
+
+    // 旧マスク・旧スキルの寄与を引き、新しい値の寄与を足す
+    private void applyMask(int id, int newMask, byte newSkill) {
+        int oldMask = masks[id];
+        byte oldSkill = skills[id];
+        for (int d = 0; d < DAYS; d++) {
+            boolean oldDay = false;
+            boolean newDay = false;
+            for (int s = 0; s < SLOTS; s++) {
+                int b = bit(d, s);
+                boolean was = (oldMask & b) != 0;
+                boolean now = (newMask & b) != 0;
+                oldDay |= was;
+                newDay |= now;
+                if (was) {
+                    slotCounts[d][s][oldSkill]--;
+                }
+                if (now) {
+                    slotCounts[d][s][newSkill]++;
+                }
+                if (was != now) {
+                    available[d][s].set(id, now);
+                }
+            }
+            if (oldDay) {
+                dayCounts[d][oldSkill]--;
+            }
+            if (newDay) {
+                dayCounts[d][newSkill]++;
+            }
+        }
+        masks[id] = newMask;
+        skills[id] = newSkill;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= masks.length) {
+            int size = Math.max(id + 1, masks.length * 2);
+            int oldSize = skills.length;
+            masks = Arrays.copyOf(masks, size);
+            skills = Arrays.copyOf(skills, size);
+            Arrays.fill(skills, oldSize, size, ABSENT);
+        }
+    }
+
+    // 名簿にいない社員のバケットを除いた合計
+    private static int rosterTotal(int[] countsBySkill) {
+        int total = 0;
+        for (int k = 0; k < ABSENT; k++) {
+            total += countsBySkill[k];
+        }
+        return total;
+    }
+
+    private static int bit(int day, int slot) {
+        return 1 << (day * SLOTS + slot);
+    }
+
+    private static byte skillCode(PartTimeEmployee.SkillLevel skill) {
+        return skill != null ? (byte) skill.ordinal() : UNKNOWN_SKILL;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 出勤希望の変更イベントを受けて {@link AvailabilityIndex} を社員単位の差分で更新する。
+ *
+ * イベントはコミット後に受け取るので、ロールバックされた変更は索引に入らない。
+ * トランザクションの外で発行されたイベントはその場で反映する。
+ * 差分の取りこぼしに備えて、定期的に全件から作り直した値と突き合わせ、食い違っていれば索引を作り直す。
+ */
+@Component
+public class AvailabilityMaintainer {
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityMaintainer.class);
+
+    private final AvailabilityIndex availabilityIndex;
+    private final Counter driftCounter;
+
+    public AvailabilityMaintainer(AvailabilityIndex availabilityIndex, MeterRegistry meterRegistry) {
+        this.availabilityIndex = availabilityIndex;
+        this.driftCounter = Counter.builder("availability.index.drift")
+                .description("Mismatches found between the incremental availability index and a full recompute")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPreferredShiftsChanged(PreferredShiftsChangedEvent event) {
+        if (event.getEmployeeId() == null) {
+            return;
+        }
+        availabilityIndex.replaceEmployee(event.getEmployeeId(), event.getShifts());
+    }
+
+    // 起動直後は索引の構築と重ならないよう、1回目も間隔をあけてから行う
+    @Scheduled(initialDelayString = "${app.availability.verify-interval:PT10M}",
+            fixedDelayString = "${app.availability.verify-interval:PT10M}")
+    public void verify() {
+        long start = System.nanoTime();
+        int mismatches = availabilityIndex.verify();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        if (mismatches < 0) {
+            logger.debug("Availability index changed during verification; will retry next time");
+        } else if (mismatches == 0) {
+            logger.debug("Availability index verified in {} ms", elapsedMs);
+        } else {
+            // コミット直後でまだ反映前の変更と重なった場合もここに来るが、作り直しは常に安全
+            logger.warn("Availability index drifted ({} mismatches, verified in {} ms); rebuilding", mismatches, elapsedMs);
+            driftCounter.increment(mismatches);
+            availabilityIndex.rebuild();
+        }
+    }
+}
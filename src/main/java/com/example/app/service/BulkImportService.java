@@ -0,0 +1,291 @@
+package com.example.app.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.example.app.dto.ImportResult;
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+import com.example.app.repository.BulkImportRepository;
+
+/**
+ * 社員と出勤希望を CSV から一括登録する。
+ *
+ * ファイルは1行ずつ読んで検証し、{@link #CHUNK_SIZE} 行ごとにバッチ INSERT する（チャンクごとに1トランザクション）。
+ * 検証エラーの行は飛ばして行番号と理由を結果に残す。DB がチャンクを拒否した場合は、そのチャンクだけ1行ずつ登録し直して
+ * 失敗した行を特定する。1行目はヘッダーで、列の順序は問わない。
+ */
+@Service
+public class BulkImportService {
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+    static final int CHUNK_SIZE = 1000;
+    private static final int MAX_LENGTH = 255;
+
+    static final List<String> EMPLOYEE_COLUMNS = List.of(
+            "name_kanji", "name_hiragana", "birthdate", "gender", "email", "phone", "skill_level");
+    static final List<String> PREFERRED_SHIFT_COLUMNS = List.of("employee_id", "day_of_week", "time_slot");
+
+    private final BulkImportRepository bulkImportRepository;
+    private final RosterSnapshotService rosterSnapshotService;
+    private final AvailabilityIndex availabilityIndex;
+
+    public BulkImportService(BulkImportRepository bulkImportRepository, RosterSnapshotService rosterSnapshotService,
+            AvailabilityIndex availabilityIndex) {
+        this.bulkImportRepository = bulkImportRepository;
+        this.rosterSnapshotService = rosterSnapshotService;
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    public ImportResult importEmployees(Reader reader) throws IOException {
+        long start = System.nanoTime();
+        ImportResult result = new ImportResult();
+        CsvReader csv = new CsvReader(reader);
+        int[] columns = readHeader(csv, EMPLOYEE_COLUMNS, "name_kanji", result);
+        if (columns != null) {
+            LocalDate today = LocalDate.now();
+            Chunk<PartTimeEmployee> chunk = new Chunk<>();
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                if (isBlank(record)) {
+                    continue;
+                }
+                result.addRead();
+                int line = csv.getRecordLine();
+                try {
+                    chunk.add(line, parseEmployee(record, columns, today));
+                } catch (IllegalArgumentException e) {
+                    result.addError(line, e.getMessage());
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(chunk, bulkImportRepository::insertEmployees, result);
+                }
+            }
+            flush(chunk, bulkImportRepository::insertEmployees, result);
+        }
+        if (result.getImportedRows() > 0) {
+            rosterSnapshotService.invalidate();
+            // 索引にも新しい社員のスキルを載せる（載せないと後から画面で入れた出勤希望が数えられない）
+            availabilityIndex.rebuild();
+        }
+        return finish("employees", result, start);
+    }
+
+    public ImportResult importPreferredShifts(Reader reader) throws IOException {
+        long start = System.nanoTime();
+        ImportResult result = new ImportResult();
+        CsvReader csv = new CsvReader(reader);
+        int[] columns = readHeader(csv, PREFERRED_SHIFT_COLUMNS, null, result);
+        if (columns != null) {
+            Set<Long> employeeIds = bulkImportRepository.findEmployeeIds();
+            Set<Long> existing = bulkImportRepository.findPreferredShiftKeys();
+            // ファイル内の重複は、最初に出てきた行番号を示す
+            Map<Long, Integer> seen = new HashMap<>();
+            Chunk<PreferredShift> chunk = new Chunk<>();
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                if (isBlank(record)) {
+                    continue;
+                }
+                result.addRead();
+                int line = csv.getRecordLine();
+                try {
+                    PreferredShift shift = parsePreferredShift(record, columns, employeeIds);
+                    long key = BulkImportRepository.preferredShiftKey(shift.getEmployeeId(),
+                            shift.getDayOfWeek(), shift.getTimeSlot());
+                    if (existing.contains(key)) {
+                        throw new IllegalArgumentException("同じ出勤希望が既に登録されています");
+                    }
+                    Integer firstLine = seen.putIfAbsent(key, line);
+                    if (firstLine != null) {
+                        throw new IllegalArgumentException(firstLine + "行目と重複しています");
+                    }
+                    chunk.add(line, shift);
+                } catch (IllegalArgumentException e) {
+                    result.addError(line, e.getMessage());
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(chunk, bulkImportRepository::insertPreferredShifts, result);
+                }
+            }
+            flush(chunk, bulkImportRepository::insertPreferredShifts, result);
+        }
+        if (result.getImportedRows() > 0) {
+            availabilityIndex.rebuild();
+        }
+        return finish("preferred shifts", result, start);
+    }
+
+    // 必須列がなければエラーを記録して null を返す。未知の列は取り込まない
+    private static int[] readHeader(CsvReader csv, List<String> known, String required, ImportResult result)
+            throws IOException {
+        List<String> header = csv.next();
+        if (header == null) {
+            result.addError(1, "ファイルが空です");
+            return null;
+        }
+        int[] columns = new int[known.size()];
+        Arrays.fill(columns, -1);
+        for (int i = 0; i < header.size(); i++) {
+            int index = known.indexOf(header.get(i).trim().toLowerCase(Locale.ROOT));
+            if (index < 0) {
+                result.addError(1, "不明な列です（無視します）: " + header.get(i));
+            } else {
+                columns[index] = i;
+            }
+        }
+        for (int i = 0; i < known.size(); i++) {
+            if (columns[i] < 0 && (required == null || required.equals(known.get(i)))) {
+                result.addError(1, "必須の列がありません: " + known.get(i));
+                return null;
+            }
+        }
+        return columns;
+    }
+
+    private static PartTimeEmployee parseEmployee(List<String> record, int[] columns, LocalDate today) {
+        PartTimeEmployee employee = new PartTimeEmployee();
+        String nameKanji = value(record, columns[0], "name_kanji");
+        if (nameKanji == null) {
+            throw new IllegalArgumentException("name_kanji は必須です");
+        }
+        employee.setNameKanji(nameKanji);
+        employee.setNameHiragana(value(record, columns[1], "name_hiragana"));
+        String birthdate = value(record, columns[2], "birthdate");
+        if (birthdate != null) {
+            try {
+                employee.setBirthdate(LocalDate.parse(birthdate.replace('/', '-')));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("birthdate は yyyy-MM-dd で指定してください: " + birthdate);
+            }
+            if (employee.getBirthdate().isAfter(today)) {
+                throw new IllegalArgumentException("birthdate が未来の日付です: " + birthdate);
+            }
+            employee.setAge(Period.between(employee.getBirthdate(), today).getYears());
+        }
+        employee.setGender(value(record, columns[3], "gender"));
+        String email = value(record, columns[4], "email");
+        if (email != null && email.indexOf('@') <= 0) {
+            throw new IllegalArgumentException("email の形式が正しくありません: " + email);
+        }
+        employee.setEmail(email);
+        employee.setPhone(value(record, columns[5], "phone"));
+        String skill = value(record, columns[6], "skill_level");
+        if (skill != null) {
+            employee.setSkillLevel(parseEnum(PartTimeEmployee.SkillLevel.class, skill, "skill_level"));
+        }
+        return employee;
+    }
+
+    private static PreferredShift parsePreferredShift(List<String> record, int[] columns, Set<Long> employeeIds) {
+        String employeeId = value(record, columns[0], "employee_id");
+        String day = value(record, columns[1], "day_of_week");
+        String slot = value(record, columns[2], "time_slot");
+        if (employeeId == null || day == null || slot == null) {
+            throw new IllegalArgumentException("employee_id, day_of_week, time_slot は必須です");
+        }
+        PreferredShift shift = new PreferredShift();
+        try {
+            shift.setEmployeeId(Long.parseLong(employeeId));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("employee_id は数値で指定してください: " + employeeId);
+        }
+        if (!employeeIds.contains(shift.getEmployeeId())) {
+            throw new IllegalArgumentException("社員が見つかりません: " + employeeId);
+        }
+        shift.setDayOfWeek(parseEnum(PreferredShift.DayOfWeek.class, day, "day_of_week"));
+        shift.setTimeSlot(parseEnum(PreferredShift.TimeSlot.class, slot, "time_slot"));
+        return shift;
+    }
+
+    // 空欄は null。長すぎる値はエラー
+    private static String value(List<String> record, int column, String name) {
+        if (column < 0 || column >= record.size()) {
+            return null;
+        }
+        String value = record.get(column).trim();
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (value.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException(name + " は" + MAX_LENGTH + "文字以内で指定してください");
+        }
+        return value;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(name + " の値が正しくありません: " + value);
+        }
+    }
+
+    private static boolean isBlank(List<String> record) {
+        return record.size() == 1 && record.get(0).isBlank();
+    }
+
+    // チャンクをまとめて登録する。拒否された場合は1行ずつ登録し直し、失敗した行だけをエラーにする
+    private static <T> void flush(Chunk<T> chunk, ToIntFunction<List<T>> insert,
+            ImportResult result) {
+        if (chunk.size() == 0) {
+            return;
+        }
+        try {
+            result.addImported(insert.applyAsInt(chunk.rows));
+        } catch (DataAccessException e) {
+            logger.warn("Bulk insert of {} rows failed, retrying row by row: {}", chunk.size(), e.getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    result.addImported(insert.applyAsInt(List.of(chunk.rows.get(i))));
+                } catch (DataAccessException rowError) {
+                    result.addError(chunk.lines.get(i), "登録できませんでした: " + rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        chunk.clear();
+    }
+
+    private static ImportResult finish(String kind, ImportResult result, long start) {
+        result.setElapsedNanos(System.nanoTime() - start);
+        logger.info("Imported {} {} of {} rows ({} errors) in {} ms, {} rows/s", result.getImportedRows(), kind,
+                result.getReadRows(), result.getErrorCount(), Math.round(result.getElapsedMillis()),
+                result.getRowsPerSecond());
+        return result;
+    }
+
+    private static final class Chunk<T> {
+        private List<T> rows = new ArrayList<>(CHUNK_SIZE);
+        private List<Integer> lines = new ArrayList<>(CHUNK_SIZE);
+
+        void add(int line, T row) {
+            rows.add(row);
+            lines.add(line);
+        }
+
+        int size() {
+            return rows.size();
+        }
+
+        // 登録に渡したリストは使い回さない
+        void clear() {
+            rows = new ArrayList<>(CHUNK_SIZE);
+            lines = new ArrayList<>(CHUNK_SIZE);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.app.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+
+/**
+ * 割り当てと人数集計のための名簿の列指向の表現。社員 ID 順のインデックスごとに
+ * ID（int）・スキルコード（byte、{@link ShiftAssignmentEngine#skillCode}）・曜日 × 時間帯の希望ビットマスク（short）だけを持つ。
+ *
+ * 1人あたり 7 バイトなので、大きな名簿でもエンティティや Map を作らずに候補者を選べる。
+ * 氏名などが必要な表示・保存の直前にだけ、ID から名簿スナップショットのエンティティを引く。
+ * 共有される不変オブジェクトなので、{@link #skills()} の配列は書き換えないこと。
+ */
+public final class CompactRoster {
+    static final int SLOTS = PreferredShift.TimeSlot.values().length;
+    private static final int DAY_MASK = (1 << SLOTS) - 1;
+
+    private final long rosterVersion;
+    private final long indexVersion;
+    private final int[] ids;
+    private final byte[] skills;
+    private final short[] masks;
+
+    CompactRoster(long rosterVersion, long indexVersion, int[] ids, byte[] skills, short[] masks) {
+        this.rosterVersion = rosterVersion;
+        this.indexVersion = indexVersion;
+        this.ids = ids;
+        this.skills = skills;
+        this.masks = masks;
+    }
+
+    /**
+     * 名簿と出勤希望のエンティティから作る（テスト・ベンチマーク・索引を使わない経路用）。
+     * 名簿にない社員の希望は含めない。
+     */
+    public static CompactRoster of(Map<Long, PartTimeEmployee> employees, Collection<PreferredShift> preferredShifts) {
+        int[] ids = new int[employees.size()];
+        int n = 0;
+        for (Long id : employees.keySet()) {
+            ids[n++] = Math.toIntExact(id);
+        }
+        Arrays.sort(ids);
+        byte[] skills = new byte[n];
+        for (int i = 0; i < n; i++) {
+            skills[i] = ShiftAssignmentEngine.skillCode(employees.get((long) ids[i]).getSkillLevel());
+        }
+        short[] masks = new short[n];
+        for (PreferredShift shift : preferredShifts) {
+            if (shift.getEmployeeId() == null || shift.getDayOfWeek() == null || shift.getTimeSlot() == null) {
+                continue;
+            }
+            int index = Arrays.binarySearch(ids, Math.toIntExact(shift.getEmployeeId()));
+            if (index >= 0) {
+                masks[index] |= (short) bit(shift.getDayOfWeek(), shift.getTimeSlot());
+            }
+        }
+        return new CompactRoster(-1, -1, ids, skills, masks);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int id(int index) {
+        return ids[index];
+    }
+
+    public byte skill(int index) {
+        return skills[index];
+    }
+
+    // ShiftAssignmentEngine#solve にそのまま渡せるインデックスごとのスキルコード
+    public byte[] skills() {
+        return skills;
+    }
+
+    // その日の希望（bit 0 = AM, bit 1 = PM）
+    public int dayMask(int index, PreferredShift.DayOfWeek day) {
+        return (masks[index] >>> (day.ordinal() * SLOTS)) & DAY_MASK;
+    }
+
+    public boolean available(int index, PreferredShift.DayOfWeek day, PreferredShift.TimeSlot slot) {
+        return (masks[index] & bit(day, slot)) != 0;
+    }
+
+    // 社員 ID のインデックス（名簿にいなければ -1）
+    public int indexOf(long employeeId) {
+        if (employeeId < Integer.MIN_VALUE || employeeId > Integer.MAX_VALUE) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(ids, (int) employeeId);
+        return index >= 0 ? index : -1;
+    }
+
+    // 曜日・時間帯を希望している社員のインデックス（ID 順）
+    public int[] candidates(PreferredShift.DayOfWeek day, PreferredShift.TimeSlot slot) {
+        int bit = bit(day, slot);
+        int count = 0;
+        for (short mask : masks) {
+            if ((mask & bit) != 0) {
+                count++;
+            }
+        }
+        int[] candidates = new int[count];
+        for (int i = 0, c = 0; c < count; i++) {
+            if ((masks[i] & bit) != 0) {
+                candidates[c++] = i;
+            }
+        }
+        return candidates;
+    }
+
+    // 表示用: その曜日の出勤希望を社員 ID 順のエンティティとして組み立てる
+    public List<PreferredShift> shiftsFor(PreferredShift.DayOfWeek day) {
+        List<PreferredShift> shifts = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            int mask = dayMask(i, day);
+            if (mask == 0) {
+                continue;
+            }
+            for (PreferredShift.TimeSlot slot : PreferredShift.TimeSlot.values()) {
+                if ((mask & (1 << slot.ordinal())) != 0) {
+                    PreferredShift shift = new PreferredShift();
+                    shift.setEmployeeId((long) ids[i]);
+                    shift.setDayOfWeek(day);
+                    shift.setTimeSlot(slot);
+                    shifts.add(shift);
+                }
+            }
+        }
+        return shifts;
+    }
+
+    boolean isCurrent(long rosterVersion, long indexVersion) {
+        return this.rosterVersion == rosterVersion && this.indexVersion == indexVersion;
+    }
+
+    private static int bit(PreferredShift.DayOfWeek day, PreferredShift.TimeSlot slot) {
+        return 1 << (day.ordinal() * SLOTS + slot.ordinal());
+    }
+}
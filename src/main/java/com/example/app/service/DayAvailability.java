@@ -0,0 +1,44 @@
+package com.example.app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.app.entity.PreferredShift;
+
+/**
+ * 指定日の出勤希望とその人数集計。名簿スナップショットと同じ時点の内容を1回の呼び出しで返す。
+ * 出勤希望のない曜日（日曜日）は dayOfWeek が null で、希望は空になる。
+ * 希望は列指向の名簿（{@link CompactRoster}）で持ち、エンティティの一覧は表示で必要になったときだけ作る。
+ */
+public final class DayAvailability {
+    private final LocalDate date;
+    private final PreferredShift.DayOfWeek dayOfWeek;
+    private final RosterSnapshot roster;
+    private final CompactRoster compactRoster;
+    private final Headcount headcount;
+
+    DayAvailability(LocalDate date, PreferredShift.DayOfWeek dayOfWeek, RosterSnapshot roster,
+            CompactRoster compactRoster, Headcount headcount) {
+        this.date = date;
+        this.dayOfWeek = dayOfWeek;
+        this.roster = roster;
+        this.compactRoster = compactRoster;
+        this.headcount = headcount;
+    }
+
+    public LocalDate getDate() { return date; }
+
+    public PreferredShift.DayOfWeek getDayOfWeek() { return dayOfWeek; }
+
+    public RosterSnapshot getRoster() { return roster; }
+
+    public CompactRoster getCompactRoster() { return compactRoster; }
+
+    // 表示用に、その日の出勤希望を社員 ID 順に組み立てる（呼ぶたびに作る）
+    public List<PreferredShift> getPreferredShifts() {
+        return dayOfWeek != null ? compactRoster.shiftsFor(dayOfWeek) : new ArrayList<>();
+    }
+
+    public Headcount getHeadcount() { return headcount; }
+}
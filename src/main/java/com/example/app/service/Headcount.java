@@ -0,0 +1,50 @@
+package com.example.app.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 出勤希望者の人数集計。テンプレートからは employeeCounts.amTotal のように参照する。
+ */
+public final class Headcount {
+    public static final Headcount EMPTY = new Headcount(0, 0, 0, 0, 0);
+
+    private final long amTotal;
+    private final long pmTotal;
+    private final long leader;
+    private final long general;
+    private final long newcomer;
+
+    public Headcount(long amTotal, long pmTotal, long leader, long general, long newcomer) {
+        this.amTotal = amTotal;
+        this.pmTotal = pmTotal;
+        this.leader = leader;
+        this.general = general;
+        this.newcomer = newcomer;
+    }
+
+    public long getAmTotal() { return amTotal; }
+
+    public long getPmTotal() { return pmTotal; }
+
+    public long getLeader() { return leader; }
+
+    public long getGeneral() { return general; }
+
+    public long getNewcomer() { return newcomer; }
+
+    public Map<String, Long> toMap() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("amTotal", amTotal);
+        counts.put("pmTotal", pmTotal);
+        counts.put("leader", leader);
+        counts.put("general", general);
+        counts.put("newcomer", newcomer);
+        return counts;
+    }
+
+    @Override
+    public String toString() {
+        return "Headcount" + toMap();
+    }
+}
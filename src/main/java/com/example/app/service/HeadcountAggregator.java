@@ -0,0 +1,91 @@
+package com.example.app.service;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+
+/**
+ * 出勤希望シフトを一度だけ走査して、時間帯別・スキルレベル別の人数（社員の重複なし）を数える。
+ * 社員一覧に存在しない社員IDの希望は数えない。
+ */
+@Component
+public class HeadcountAggregator {
+    private static final int SLOTS = PreferredShift.TimeSlot.values().length;
+    private static final int SKILLS = PartTimeEmployee.SkillLevel.values().length;
+
+    public Headcount aggregate(List<PreferredShift> preferredShifts, Map<Long, PartTimeEmployee> employees) {
+        if (preferredShifts == null || preferredShifts.isEmpty() || employees == null) {
+            return Headcount.EMPTY;
+        }
+        int[] slotTotals = new int[SLOTS];
+        int[] skillTotals = new int[SKILLS];
+        // 時間帯ごとの既出社員と、その日の既出社員
+        BitSet[] seenInSlot = new BitSet[SLOTS];
+        for (int s = 0; s < SLOTS; s++) {
+            seenInSlot[s] = new BitSet();
+        }
+        BitSet seen = new BitSet();
+
+        for (int i = 0, n = preferredShifts.size(); i < n; i++) {
+            PreferredShift shift = preferredShifts.get(i);
+            Long employeeId = shift.getEmployeeId();
+            if (employeeId == null) {
+                continue;
+            }
+            PartTimeEmployee employee = employees.get(employeeId);
+            if (employee == null) {
+                continue;
+            }
+            int id = Math.toIntExact(employeeId);
+            PreferredShift.TimeSlot timeSlot = shift.getTimeSlot();
+            if (timeSlot != null && !seenInSlot[timeSlot.ordinal()].get(id)) {
+                seenInSlot[timeSlot.ordinal()].set(id);
+                slotTotals[timeSlot.ordinal()]++;
+            }
+            if (!seen.get(id)) {
+                seen.set(id);
+                PartTimeEmployee.SkillLevel skillLevel = employee.getSkillLevel();
+                if (skillLevel != null) {
+                    skillTotals[skillLevel.ordinal()]++;
+                }
+            }
+        }
+        return new Headcount(
+                slotTotals[PreferredShift.TimeSlot.AM.ordinal()],
+                slotTotals[PreferredShift.TimeSlot.PM.ordinal()],
+                skillTotals[PartTimeEmployee.SkillLevel.LEADER.ordinal()],
+                skillTotals[PartTimeEmployee.SkillLevel.GENERAL.ordinal()],
+                skillTotals[PartTimeEmployee.SkillLevel.NEWCOMER.ordinal()]);
+    }
+
+    // 列指向の名簿から数える。各社員はその日のマスクを1回見るだけで、オブジェクトを作らない
+    public Headcount aggregate(CompactRoster roster, PreferredShift.DayOfWeek day) {
+        if (roster == null || day == null) {
+            return Headcount.EMPTY;
+        }
+        int[] slotTotals = new int[SLOTS];
+        // 最後のバケットはスキル未設定（数えない）
+        int[] skillTotals = new int[SKILLS + 1];
+        for (int i = 0, n = roster.size(); i < n; i++) {
+            int mask = roster.dayMask(i, day);
+            if (mask == 0) {
+                continue;
+            }
+            for (int s = 0; s < SLOTS; s++) {
+                slotTotals[s] += (mask >>> s) & 1;
+            }
+            skillTotals[roster.skill(i)]++;
+        }
+        return new Headcount(
+                slotTotals[PreferredShift.TimeSlot.AM.ordinal()],
+                slotTotals[PreferredShift.TimeSlot.PM.ordinal()],
+                skillTotals[PartTimeEmployee.SkillLevel.LEADER.ordinal()],
+                skillTotals[PartTimeEmployee.SkillLevel.GENERAL.ordinal()],
+                skillTotals[PartTimeEmployee.SkillLevel.NEWCOMER.ordinal()]);
+    }
+}
@@ -2,14 +2,15 @@ package com.example.app.service;
 
 import java.util.Optional;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-
+import com.example.app.dto.EmployeeSearch;
+import com.example.app.dto.EmployeeSlice;
 import com.example.app.entity.PartTimeEmployee;
 
 public interface PartTimeEmployeeService {
-    Page<PartTimeEmployee> findAll(Pageable pageable);
+    // afterId / beforeId はページの境界（両方 null なら先頭ページ）
+    EmployeeSlice findSlice(EmployeeSearch search, Long afterId, Long beforeId, int size);
+    long count(EmployeeSearch search);
     Optional<PartTimeEmployee> findById(Integer id);
     PartTimeEmployee save(PartTimeEmployee employee);
     void deleteById(Integer id);
-}
\ No newline at end of file
+}
@@ -1,28 +1,76 @@
 package com.example.app.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.app.dto.EmployeeSearch;
+import com.example.app.dto.EmployeeSlice;
 import com.example.app.entity.PartTimeEmployee;
 import com.example.app.repository.PartTimeEmployeeRepository;
 
 @Service
 public class PartTimeEmployeeServiceImpl implements PartTimeEmployeeService {
+    private static final int MAX_CACHED_COUNTS = 256;
+
     private final PartTimeEmployeeRepository repository;
     private final PreferredShiftService preferredShiftService;
+    private final RosterSnapshotService rosterSnapshotService;
+    private final AvailabilityIndex availabilityIndex;
+    // 絞り込み条件ごとの件数。名簿の版が変わったら数え直す
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
 
-    public PartTimeEmployeeServiceImpl(PartTimeEmployeeRepository repository, PreferredShiftService preferredShiftService) {
+    public PartTimeEmployeeServiceImpl(PartTimeEmployeeRepository repository, PreferredShiftService preferredShiftService,
+            RosterSnapshotService rosterSnapshotService, AvailabilityIndex availabilityIndex) {
         this.repository = repository;
         this.preferredShiftService = preferredShiftService;
+        this.rosterSnapshotService = rosterSnapshotService;
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    @Override
+    public EmployeeSlice findSlice(EmployeeSearch search, Long afterId, Long beforeId, int size) {
+        // 次（前）のページがあるかを知るために1件多く読む
+        Limit limit = Limit.of(size + 1);
+        if (beforeId != null) {
+            List<PartTimeEmployee> rows = new ArrayList<>(repository.findPageBefore(beforeId, search, limit));
+            boolean hasPrevious = rows.size() > size;
+            if (hasPrevious) {
+                rows.remove(size);
+            }
+            Collections.reverse(rows);
+            // 元のページの社員が削除・絞り込みで消えていることもあるので、境界以降を確かめる
+            return new EmployeeSlice(rows, hasPrevious, repository.existsFrom(beforeId, search));
+        }
+        List<PartTimeEmployee> rows = new ArrayList<>(repository.findPageAfter(afterId != null ? afterId : 0L,
+                search, limit));
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows.remove(size);
+        }
+        return new EmployeeSlice(rows, afterId != null && afterId > 0, hasNext);
     }
 
     @Override
-    public Page<PartTimeEmployee> findAll(Pageable pageable) {
-        return repository.findAll(pageable);
+    public long count(EmployeeSearch search) {
+        long version = rosterSnapshotService.getVersion();
+        CachedCount cached = counts.get(search.cacheKey());
+        if (cached != null && cached.version == version) {
+            return cached.count;
+        }
+        long count = repository.countBySearch(search);
+        if (counts.size() >= MAX_CACHED_COUNTS) {
+            counts.clear();
+        }
+        counts.put(search.cacheKey(), new CachedCount(version, count));
+        return count;
     }
 
     @Override
@@ -32,7 +80,10 @@ public class PartTimeEmployeeServiceImpl implements PartTimeEmployeeService {
 
     @Override
     public PartTimeEmployee save(PartTimeEmployee employee) {
-        return repository.save(employee);
+        PartTimeEmployee saved = repository.save(employee);
+        rosterSnapshotService.invalidateAfterCommit();
+        TransactionCallbacks.afterCommit(() -> availabilityIndex.updateSkill(saved.getId(), saved.getSkillLevel()));
+        return saved;
     }
 
     @Override
@@ -40,5 +91,17 @@ public class PartTimeEmployeeServiceImpl implements PartTimeEmployeeService {
     public void deleteById(Integer id) {
         preferredShiftService.deleteByEmployeeId(id.longValue());
         repository.deleteById(id);
+        rosterSnapshotService.invalidateAfterCommit();
+        TransactionCallbacks.afterCommit(() -> availabilityIndex.removeEmployee(id.longValue()));
+    }
+
+    private static final class CachedCount {
+        private final long version;
+        private final long count;
+
+        CachedCount(long version, long count) {
+            this.version = version;
+            this.count = count;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.example.app.service;
+
+import java.util.List;
+
+import com.example.app.entity.PreferredShift;
+
+public interface PreferredShiftService {
+    List<PreferredShift> findByEmployeeId(Long employeeId);
+    List<PreferredShift> replaceForEmployee(Long employeeId, List<PreferredShift> shifts);
+    PreferredShift save(PreferredShift shift);
+    void deleteById(Long id);
+    void deleteByEmployeeId(Long employeeId);
+}
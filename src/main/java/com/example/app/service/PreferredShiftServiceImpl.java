@@ -0,0 +1,68 @@
+package com.example.app.service;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.app.entity.PreferredShift;
+import com.example.app.repository.PreferredShiftRepository;
+
+@Service
+public class PreferredShiftServiceImpl implements PreferredShiftService {
+    private final PreferredShiftRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PreferredShiftServiceImpl(PreferredShiftRepository repository, ApplicationEventPublisher eventPublisher) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public List<PreferredShift> findByEmployeeId(Long employeeId) {
+        return repository.findByEmployeeId(employeeId);
+    }
+
+    @Override
+    @Transactional
+    public List<PreferredShift> replaceForEmployee(Long employeeId, List<PreferredShift> shifts) {
+        repository.deleteByEmployeeId(employeeId);
+        shifts.forEach(shift -> shift.setEmployeeId(employeeId));
+        List<PreferredShift> saved = repository.saveAll(shifts);
+        publishChanged(employeeId);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public PreferredShift save(PreferredShift shift) {
+        PreferredShift saved = repository.save(shift);
+        publishChanged(saved.getEmployeeId());
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void deleteById(Long id) {
+        repository.findById(id).ifPresent(shift -> {
+            repository.delete(shift);
+            publishChanged(shift.getEmployeeId());
+        });
+    }
+
+    @Override
+    @Transactional
+    public void deleteByEmployeeId(Long employeeId) {
+        repository.deleteByEmployeeId(employeeId);
+        publishChanged(employeeId);
+    }
+
+    // コミット前の内容で社員単位の希望を確定させてイベントにする（索引への反映はコミット後、AvailabilityMaintainer が行う）
+    private void publishChanged(Long employeeId) {
+        if (employeeId == null) {
+            return;
+        }
+        eventPublisher.publishEvent(new PreferredShiftsChangedEvent(employeeId, repository.findByEmployeeId(employeeId)));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.app.service;
+
+import java.util.List;
+
+import com.example.app.entity.PreferredShift;
+
+/**
+ * ある社員の出勤希望シフトが書き換わったことを知らせるイベント。
+ * 書き込んだトランザクションの中で読んだ、その社員の希望の全件（削除後なら空）を持つ。
+ * 差分ではなく社員単位の最新の状態なので、受け取る側は何度適用しても同じ結果になる。
+ */
+public class PreferredShiftsChangedEvent {
+    private final Long employeeId;
+    private final List<PreferredShift> shifts;
+
+    public PreferredShiftsChangedEvent(Long employeeId, List<PreferredShift> shifts) {
+        this.employeeId = employeeId;
+        this.shifts = List.copyOf(shifts);
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public List<PreferredShift> getShifts() {
+        return shifts;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.app.service;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.Task;
+import com.example.app.entity.Workplace;
+
+/**
+ * 社員・職場・タスクのマスタを読み込んだ時点の不変スナップショット。
+ * 画面表示用に共有されるため、保持するエンティティは変更しないこと。
+ */
+public final class RosterSnapshot {
+    private final long version;
+    private final Instant loadedAt;
+    private final Map<Long, PartTimeEmployee> employees;
+    private final List<Workplace> workplaces;
+    private final Map<Long, Workplace> workplacesById;
+    private final Map<Long, String> workplaceNames;
+    private final List<Task> tasks;
+    private final Map<Long, Task> tasksById;
+
+    RosterSnapshot(long version, Instant loadedAt,
+            List<PartTimeEmployee> employees, List<Workplace> workplaces, List<Task> tasks) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+
+        Map<Long, PartTimeEmployee> employeeMap = new LinkedHashMap<>();
+        for (PartTimeEmployee employee : employees) {
+            if (employee != null && employee.getId() != null) {
+                employeeMap.put(employee.getId(), employee);
+            }
+        }
+        this.employees = Collections.unmodifiableMap(employeeMap);
+
+        this.workplaces = workplaces.stream()
+                .filter(w -> w != null && w.getId() != null)
+                .collect(Collectors.toUnmodifiableList());
+        Map<Long, Workplace> workplaceMap = new LinkedHashMap<>();
+        Map<Long, String> names = new LinkedHashMap<>();
+        for (Workplace workplace : this.workplaces) {
+            workplaceMap.put(workplace.getId(), workplace);
+            names.put(workplace.getId(), workplace.getName());
+        }
+        this.workplacesById = Collections.unmodifiableMap(workplaceMap);
+        this.workplaceNames = Collections.unmodifiableMap(names);
+
+        this.tasks = tasks.stream()
+                .filter(t -> t != null && t.getId() != null)
+                .collect(Collectors.toUnmodifiableList());
+        Map<Long, Task> taskMap = new LinkedHashMap<>();
+        for (Task task : this.tasks) {
+            taskMap.put(task.getId(), task);
+        }
+        this.tasksById = Collections.unmodifiableMap(taskMap);
+    }
+
+    public long getVersion() { return version; }
+
+    public Instant getLoadedAt() { return loadedAt; }
+
+    public Map<Long, PartTimeEmployee> getEmployees() { return employees; }
+
+    public List<Workplace> getWorkplaces() { return workplaces; }
+
+    public Map<Long, Workplace> getWorkplacesById() { return workplacesById; }
+
+    public Map<Long, String> getWorkplaceNames() { return workplaceNames; }
+
+    public List<Task> getTasks() { return tasks; }
+
+    public Map<Long, Task> getTasksById() { return tasksById; }
+
+    public List<Task> getTasksBetween(long startId, long endId) {
+        return tasks.stream()
+                .filter(t -> t.getId() >= startId && t.getId() <= endId)
+                .collect(Collectors.toUnmodifiableList());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.app.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.app.repository.PartTimeEmployeeRepository;
+import com.example.app.repository.TaskRepository;
+import com.example.app.repository.WorkplaceRepository;
+
+/**
+ * 社員・職場・タスクのスナップショットをメモリに保持する。
+ * 書き込み時に {@link #invalidate()} され、次回参照時に再読み込みされる。
+ */
+@Service
+public class RosterSnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(RosterSnapshotService.class);
+
+    private final PartTimeEmployeeRepository employeeRepository;
+    private final WorkplaceRepository workplaceRepository;
+    private final TaskRepository taskRepository;
+    private final Duration maxAge;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Instant changedAt = Instant.now();
+    // synchronized だと仮想スレッドが読み込み中の JDBC 呼び出しでキャリアスレッドを固定（pin）するため ReentrantLock を使う
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile RosterSnapshot snapshot;
+
+    public RosterSnapshotService(PartTimeEmployeeRepository employeeRepository,
+            WorkplaceRepository workplaceRepository,
+            TaskRepository taskRepository,
+            @Value("${app.roster.snapshot-max-age:PT10M}") Duration maxAge,
+            PlatformTransactionManager transactionManager) {
+        this.employeeRepository = employeeRepository;
+        this.workplaceRepository = workplaceRepository;
+        this.taskRepository = taskRepository;
+        this.maxAge = maxAge;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public RosterSnapshot current() {
+        RosterSnapshot current = snapshot;
+        if (isUsable(current)) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            current = snapshot;
+            if (!isUsable(current)) {
+                long expectedVersion = version.get();
+                current = load(expectedVersion);
+                // 読み込み中に無効化された場合は古い内容を公開しない
+                if (version.get() == expectedVersion) {
+                    snapshot = current;
+                }
+            }
+            return current;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    // 最後に無効化された時刻（起動後に変更がなければ起動時刻）
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+        changedAt = Instant.now();
+        snapshot = null;
+        logger.debug("Roster snapshot invalidated, version: {}", version.get());
+    }
+
+    // トランザクション中ならコミット後に無効化する
+    public void invalidateAfterCommit() {
+        TransactionCallbacks.afterCommit(this::invalidate);
+    }
+
+    // 版も比べるので、無効化と公開が入れ違って古いスナップショットが置かれても使わない
+    private boolean isUsable(RosterSnapshot current) {
+        return current != null && current.getVersion() == version.get()
+                && !current.getLoadedAt().plus(maxAge).isBefore(Instant.now());
+    }
+
+    // 3つの findAll を1つの読み取り専用トランザクション（1本のコネクション、フラッシュなし）で読む
+    private RosterSnapshot load(long snapshotVersion) {
+        long start = System.nanoTime();
+        RosterSnapshot loaded = readOnlyTransaction.execute(status -> new RosterSnapshot(snapshotVersion, Instant.now(),
+                employeeRepository.findAll(),
+                workplaceRepository.findAll(),
+                taskRepository.findAll()));
+        logger.info("Roster snapshot loaded: version={}, employees={}, workplaces={}, tasks={}, {} ms",
+                snapshotVersion, loaded.getEmployees().size(), loaded.getWorkplaces().size(),
+                loaded.getTasks().size(), (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.app.dto.ScheduleGenerationResult;
+import com.example.app.dto.ShiftAssignmentDto;
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 期間内の各日のシフトを並列に解き、日をまたぐ制約（社員ごとの勤務日数の上限）を後から調整する。
+ * 各日の入力はメモリ上のスナップショットと索引から事前に用意するため、並列処理中に DB へは触れない。
+ * 1スレッドで順に解いた場合との比較は ScheduleGenerationBenchmark で測る。
+ */
+@Service
+public class ScheduleGenerationService {
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleGenerationService.class);
+
+    private final ShiftAssignmentService shiftAssignmentService;
+    private final ShiftPlanService shiftPlanService;
+    private final RosterSnapshotService rosterSnapshotService;
+    private final AvailabilityIndex availabilityIndex;
+    private final WorkloadHistory workloadHistory;
+    private final int maxDays;
+    private final ForkJoinPool pool;
+
+    public ScheduleGenerationService(ShiftAssignmentService shiftAssignmentService,
+            ShiftPlanService shiftPlanService,
+            RosterSnapshotService rosterSnapshotService,
+            AvailabilityIndex availabilityIndex,
+            WorkloadHistory workloadHistory,
+            @Value("${app.schedule.max-days:62}") int maxDays,
+            @Value("${app.schedule.parallelism:0}") int parallelism) {
+        this.shiftAssignmentService = shiftAssignmentService;
+        this.shiftPlanService = shiftPlanService;
+        this.rosterSnapshotService = rosterSnapshotService;
+        this.availabilityIndex = availabilityIndex;
+        this.workloadHistory = workloadHistory;
+        this.maxDays = maxDays;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * @param maxDaysPerEmployee 期間内に1人が勤務できる日数の上限（0以下なら上限なし）
+     * @param save               true なら期間内の計画を1トランザクションで置き換える
+     */
+    public ScheduleGenerationResult generate(LocalDate startDate, LocalDate endDate,
+            Map<Long, Map<String, Object>> formAssignments, Map<Long, List<Long>> taskIdsByWorkplace,
+            int maxDaysPerEmployee, boolean save) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("終了日は開始日以降を指定してください: " + startDate + " - " + endDate);
+        }
+        if (startDate.plusDays(maxDays - 1L).isBefore(endDate)) {
+            throw new IllegalArgumentException("一度に生成できるのは" + maxDays + "日までです");
+        }
+        RosterSnapshot roster = rosterSnapshotService.current();
+        Map<Long, PartTimeEmployee> employees = roster.getEmployees();
+        Map<Long, String> workplaceNames = roster.getWorkplaceNames();
+        // 出勤希望は列指向の名簿を1つ取り出して各日で共有する
+        CompactRoster compact = availabilityIndex.compactRoster();
+        // 直近の勤務実績は開始日の前日までを全日で共有する（期間内の保存済み計画はこれから置き換えるので数えない）
+        int[] workload = workloadHistory.slotsBefore(startDate, compact);
+
+        List<LocalDate> dates = new ArrayList<>();
+        List<LocalDate> skipped = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            if (dayOf(date) == null) {
+                skipped.add(date);
+                continue;
+            }
+            dates.add(date);
+        }
+
+        long start = System.nanoTime();
+        List<CompletableFuture<DayPlan>> futures = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                long dayStart = System.nanoTime();
+                Map<Long, ShiftAssignmentDto> plan = shiftAssignmentService.assignEmployees(
+                        date, formAssignments, compact, dayOf(date), workload, employees, workplaceNames);
+                return new DayPlan(date, plan, System.nanoTime() - dayStart);
+            }, pool));
+        }
+        Map<LocalDate, Map<Long, ShiftAssignmentDto>> plans = new TreeMap<>();
+        long dayNanos = 0;
+        for (CompletableFuture<DayPlan> future : futures) {
+            DayPlan dayPlan = future.join();
+            plans.put(dayPlan.date, dayPlan.assignments);
+            dayNanos += dayPlan.nanos;
+        }
+        long wallNanos = System.nanoTime() - start;
+
+        int[] reconciled = maxDaysPerEmployee > 0
+                ? enforceMaxDays(plans, compact, employees, maxDaysPerEmployee)
+                : new int[2];
+
+        int savedRows = save ? shiftPlanService.savePlans(plans, taskIdsByWorkplace) : 0;
+        ScheduleGenerationResult result = new ScheduleGenerationResult(plans, skipped, reconciled[0], reconciled[1],
+                savedRows, wallNanos, dayNanos, pool.getParallelism());
+        logger.info("Generated {} days ({} - {}) on {} threads: wall {} ms, sum of per-day times {} ms, removed {}, backfilled {}",
+                dates.size(), startDate, endDate, pool.getParallelism(), String.format("%.2f", result.getWallMillis()),
+                String.format("%.2f", result.getDayMillis()), reconciled[0], reconciled[1]);
+        return result;
+    }
+
+    /**
+     * 日付順に勤務日数を数え、上限を超える社員をその日の割り当てから外し、
+     * 同じ時間帯を希望していて未割り当て・上限内の社員で埋め直す。
+     *
+     * @return {外した割り当て数, 埋め直した数}
+     */
+    int[] enforceMaxDays(Map<LocalDate, Map<Long, ShiftAssignmentDto>> plans,
+            CompactRoster compact, Map<Long, PartTimeEmployee> employees, int maxDaysPerEmployee) {
+        Map<Long, Integer> daysWorked = new HashMap<>();
+        int removed = 0;
+        int backfilled = 0;
+        for (Map.Entry<LocalDate, Map<Long, ShiftAssignmentDto>> entry : plans.entrySet()) {
+            Collection<ShiftAssignmentDto> workplaces = entry.getValue().values();
+            Set<Long> overLimit = new HashSet<>();
+            Set<Long> workingToday = new HashSet<>();
+            for (ShiftAssignmentDto dto : workplaces) {
+                collectWorking(dto.getAmEmployees(), daysWorked, maxDaysPerEmployee, workingToday, overLimit);
+                collectWorking(dto.getPmEmployees(), daysWorked, maxDaysPerEmployee, workingToday, overLimit);
+            }
+            workingToday.removeAll(overLimit);
+
+            if (!overLimit.isEmpty()) {
+                PreferredShift.DayOfWeek day = dayOf(entry.getKey());
+                for (PreferredShift.TimeSlot slot : PreferredShift.TimeSlot.values()) {
+                    Set<Long> assignedInSlot = new HashSet<>();
+                    for (ShiftAssignmentDto dto : workplaces) {
+                        for (PartTimeEmployee employee : employeesIn(dto, slot)) {
+                            assignedInSlot.add(employee.getId());
+                        }
+                    }
+                    List<PartTimeEmployee> spare = new ArrayList<>();
+                    for (int index : compact.candidates(day, slot)) {
+                        PartTimeEmployee employee = employees.get((long) compact.id(index));
+                        if (employee != null
+                                && !assignedInSlot.contains(employee.getId())
+                                && daysWorked.getOrDefault(employee.getId(), 0) < maxDaysPerEmployee
+                                && !overLimit.contains(employee.getId())) {
+                            spare.add(employee);
+                        }
+                    }
+                    for (ShiftAssignmentDto dto : workplaces) {
+                        List<PartTimeEmployee> seated = employeesIn(dto, slot);
+                        for (int i = 0; i < seated.size(); i++) {
+                            if (!overLimit.contains(seated.get(i).getId())) {
+                                continue;
+                            }
+                            removed++;
+                            PartTimeEmployee replacement = takeReplacement(spare, seated.get(i).getSkillLevel());
+                            if (replacement != null) {
+                                seated.set(i, replacement);
+                                workingToday.add(replacement.getId());
+                                backfilled++;
+                            } else {
+                                dto.getWarnings().add(slot + ": 勤務日数の上限により"
+                                        + seated.get(i).getNameKanji() + "さんを外しました");
+                                seated.remove(i--);
+                            }
+                        }
+                    }
+                }
+            }
+            for (Long employeeId : workingToday) {
+                daysWorked.merge(employeeId, 1, Integer::sum);
+            }
+        }
+        return new int[] {removed, backfilled};
+    }
+
+    private static void collectWorking(List<PartTimeEmployee> seated, Map<Long, Integer> daysWorked,
+            int maxDaysPerEmployee, Set<Long> workingToday, Set<Long> overLimit) {
+        for (PartTimeEmployee employee : seated) {
+            workingToday.add(employee.getId());
+            if (daysWorked.getOrDefault(employee.getId(), 0) >= maxDaysPerEmployee) {
+                overLimit.add(employee.getId());
+            }
+        }
+    }
+
+    private static List<PartTimeEmployee> employeesIn(ShiftAssignmentDto dto, PreferredShift.TimeSlot slot) {
+        return slot == PreferredShift.TimeSlot.AM ? dto.getAmEmployees() : dto.getPmEmployees();
+    }
+
+    // 同じスキルの社員を優先し、新人の代わり以外には新人を入れない
+    private static PartTimeEmployee takeReplacement(List<PartTimeEmployee> spare, PartTimeEmployee.SkillLevel skill) {
+        int fallback = -1;
+        for (int i = 0; i < spare.size(); i++) {
+            PartTimeEmployee.SkillLevel candidate = spare.get(i).getSkillLevel();
+            if (candidate == skill) {
+                return spare.remove(i);
+            }
+            if (fallback < 0 && candidate != PartTimeEmployee.SkillLevel.NEWCOMER
+                    && skill != PartTimeEmployee.SkillLevel.LEADER) {
+                fallback = i;
+            }
+        }
+        return fallback >= 0 ? spare.remove(fallback) : null;
+    }
+
+    static PreferredShift.DayOfWeek dayOf(LocalDate date) {
+        String name = date.getDayOfWeek().toString().toUpperCase(Locale.ENGLISH);
+        for (PreferredShift.DayOfWeek day : PreferredShift.DayOfWeek.values()) {
+            if (day.name().equals(name)) {
+                return day;
+            }
+        }
+        return null;
+    }
+
+    private static final class DayPlan {
+        private final LocalDate date;
+        private final Map<Long, ShiftAssignmentDto> assignments;
+        private final long nanos;
+
+        private DayPlan(LocalDate date, Map<Long, ShiftAssignmentDto> assignments, long nanos) {
+            this.date = date;
+            this.assignments = assignments;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.app.service;
+
+import java.util.Arrays;
+
+import com.example.app.entity.PartTimeEmployee;
+
+/**
+ * 1つの時間帯について、候補者を職場の必要人数に割り当てる。
+ *
+ * 制約は「必要人数が1以上の職場にはリーダーを1名以上」「新人は職場ごとに上限まで」の2つ。
+ * 候補者は時間帯内のどの職場にも入れるため、フローネットワークの最大流は
+ * (1) リーダーを1名ずつ配る、(2) 不足分を埋めるのに必要な数だけ新人を上限内で配る、
+ * (3) 残りを一般・リーダーで埋める、の順に貪欲に配れば得られる。計算量は O(候補者 + 職場 log 職場)。
+ */
+public final class ShiftAssignmentEngine {
+    static final byte LEADER = (byte) PartTimeEmployee.SkillLevel.LEADER.ordinal();
+    static final byte GENERAL = (byte) PartTimeEmployee.SkillLevel.GENERAL.ordinal();
+    static final byte NEWCOMER = (byte) PartTimeEmployee.SkillLevel.NEWCOMER.ordinal();
+    static final byte UNKNOWN = (byte) PartTimeEmployee.SkillLevel.values().length;
+
+    private final double maxNewcomerRatio;
+
+    public ShiftAssignmentEngine(double maxNewcomerRatio) {
+        if (maxNewcomerRatio < 0 || maxNewcomerRatio > 1) {
+            throw new IllegalArgumentException("maxNewcomerRatio must be between 0 and 1: " + maxNewcomerRatio);
+        }
+        this.maxNewcomerRatio = maxNewcomerRatio;
+    }
+
+    public static byte skillCode(PartTimeEmployee.SkillLevel skillLevel) {
+        return skillLevel != null ? (byte) skillLevel.ordinal() : UNKNOWN;
+    }
+
+    // 職場ごとの新人の上限（必要人数に対する割合、端数切り捨て）
+    public int newcomerCap(int demand) {
+        return (int) Math.floor(demand * maxNewcomerRatio);
+    }
+
+    /**
+     * @param demand     職場ごとの必要人数
+     * @param candidates 候補者の社員インデックス（優先する順）
+     * @param skills     社員インデックスごとのスキルコード
+     * @return 職場ごとに割り当てた社員インデックス
+     */
+    public int[][] solve(int[] demand, int[] candidates, byte[] skills) {
+        int workplaceCount = demand.length;
+        int[] leaders = new int[candidates.length];
+        int[] newcomers = new int[candidates.length];
+        int[] others = new int[candidates.length];
+        int leaderCount = 0;
+        int newcomerCount = 0;
+        int otherCount = 0;
+        for (int candidate : candidates) {
+            byte skill = skills[candidate];
+            if (skill == LEADER) {
+                leaders[leaderCount++] = candidate;
+            } else if (skill == NEWCOMER) {
+                newcomers[newcomerCount++] = candidate;
+            } else {
+                others[otherCount++] = candidate;
+            }
+        }
+
+        int[][] seats = new int[workplaceCount][];
+        int[] filled = new int[workplaceCount];
+        int[] newcomersIn = new int[workplaceCount];
+        for (int w = 0; w < workplaceCount; w++) {
+            seats[w] = new int[Math.max(demand[w], 0)];
+        }
+        int[] order = byDemandDescending(demand);
+
+        // (1) リーダーを必要人数の多い職場から1名ずつ
+        int nextLeader = 0;
+        for (int w : order) {
+            if (demand[w] <= 0 || nextLeader >= leaderCount) {
+                continue;
+            }
+            seats[w][filled[w]++] = leaders[nextLeader++];
+        }
+
+        // (2) 一般・残りのリーダーで埋めきれない分だけ、新人を上限内で順番に配る
+        int openSeats = 0;
+        for (int w = 0; w < workplaceCount; w++) {
+            openSeats += seats[w].length - filled[w];
+        }
+        int unrestricted = otherCount + (leaderCount - nextLeader);
+        int newcomersNeeded = Math.min(newcomerCount, Math.max(0, openSeats - unrestricted));
+        int nextNewcomer = 0;
+        boolean placed = true;
+        while (nextNewcomer < newcomersNeeded && placed) {
+            placed = false;
+            for (int w : order) {
+                if (nextNewcomer >= newcomersNeeded) {
+                    break;
+                }
+                if (filled[w] < seats[w].length && newcomersIn[w] < newcomerCap(demand[w])) {
+                    seats[w][filled[w]++] = newcomers[nextNewcomer++];
+                    newcomersIn[w]++;
+                    placed = true;
+                }
+            }
+        }
+
+        // (3) 残りの席を一般、次に余ったリーダーで埋める
+        int nextOther = 0;
+        for (int w : order) {
+            while (filled[w] < seats[w].length) {
+                if (nextOther < otherCount) {
+                    seats[w][filled[w]++] = others[nextOther++];
+                } else if (nextLeader < leaderCount) {
+                    seats[w][filled[w]++] = leaders[nextLeader++];
+                } else {
+                    break;
+                }
+            }
+        }
+
+        for (int w = 0; w < workplaceCount; w++) {
+            if (filled[w] < seats[w].length) {
+                seats[w] = Arrays.copyOf(seats[w], filled[w]);
+            }
+        }
+        return seats;
+    }
+
+    /**
+     * 候補者を直近の勤務コマ数の少ない順に並べ替える（同数なら元の順）。
+     * コマ数は窓の日数 × 2 までの小さな値なので、数え上げソートで O(候補者 + 最大コマ数)。
+     *
+     * @param workload 社員インデックスごとの勤務コマ数（null なら並べ替えない）
+     */
+    public static int[] byWorkload(int[] candidates, int[] workload) {
+        if (workload == null || candidates.length < 2) {
+            return candidates;
+        }
+        int max = 0;
+        for (int candidate : candidates) {
+            max = Math.max(max, workload[candidate]);
+        }
+        if (max == 0) {
+            return candidates;
+        }
+        int[] starts = new int[max + 2];
+        for (int candidate : candidates) {
+            starts[workload[candidate] + 1]++;
+        }
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+        int[] sorted = new int[candidates.length];
+        for (int candidate : candidates) {
+            sorted[starts[workload[candidate]]++] = candidate;
+        }
+        return sorted;
+    }
+
+    private static int[] byDemandDescending(int[] demand) {
+        // 必要人数(上位)と職場インデックス(下位)を1つの long に詰めてソートし、同数なら入力順を保つ
+        long[] keys = new long[demand.length];
+        for (int w = 0; w < demand.length; w++) {
+            keys[w] = ((long) (Integer.MAX_VALUE - Math.max(demand[w], 0)) << 32) | w;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[demand.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.app.dto.ShiftAssignmentDto;
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Service
+@SuppressWarnings("unchecked")
+public class ShiftAssignmentService {
+    private static final Logger logger = LoggerFactory.getLogger(ShiftAssignmentService.class);
+    private static final PreferredShift.TimeSlot[] SLOTS = PreferredShift.TimeSlot.values();
+
+    private final ShiftAssignmentEngine engine;
+    private final Timer assignTimer;
+    private final Timer[] solveTimers = new Timer[SLOTS.length];
+    private final Counter[] shortfallCounters = new Counter[SLOTS.length];
+
+    public ShiftAssignmentService(@Value("${app.assignment.max-newcomer-ratio:0.5}") double maxNewcomerRatio,
+            MeterRegistry meterRegistry) {
+        this.engine = new ShiftAssignmentEngine(maxNewcomerRatio);
+        this.assignTimer = Timer.builder("shift.assignment")
+                .description("1日分の割り当て（索引作り・配席・DTO 組み立て）にかかった時間")
+                .register(meterRegistry);
+        for (PreferredShift.TimeSlot slot : SLOTS) {
+            solveTimers[slot.ordinal()] = Timer.builder("shift.assignment.solve")
+                    .description("1つの時間帯の配席にかかった時間")
+                    .tag("slot", slot.name())
+                    .register(meterRegistry);
+            shortfallCounters[slot.ordinal()] = Counter.builder("shift.assignment.shortfall")
+                    .description("候補者が足りず埋まらなかった席の数")
+                    .tag("slot", slot.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 候補者の選別と配席は列指向の名簿（ID・スキルコード・希望ビットマスク）だけで行い、
+     * エンティティは割り当てた社員の分だけ employees から引いて DTO に入れる。
+     *
+     * @param roster    社員 ID 順の名簿（{@link AvailabilityIndex#compactRoster()}）
+     * @param day       希望を見る曜日
+     * @param workload  名簿のインデックスごとの直近の勤務コマ数（{@link WorkloadHistory#slotsBefore}）。
+     *                  少ない社員から選ぶ。null なら ID 順
+     * @param employees 表示・保存用に割り当て結果へ入れるエンティティ
+     */
+    public Map<Long, ShiftAssignmentDto> assignEmployees(LocalDate workDate,
+            Map<Long, Map<String, Object>> formAssignments,
+            CompactRoster roster,
+            PreferredShift.DayOfWeek day,
+            int[] workload,
+            Map<Long, PartTimeEmployee> employees,
+            Map<Long, String> workplaceNames) {
+        long start = System.nanoTime();
+        List<Long> workplaceIds = workplaceOrder(formAssignments, workplaceNames);
+        int[][] demand = demand(formAssignments, workplaceIds);
+        int[][][] seats = new int[SLOTS.length][][];
+        for (PreferredShift.TimeSlot slot : SLOTS) {
+            int s = slot.ordinal();
+            seats[s] = solve(slot, demand[s], candidates(roster, day, slot, workload), roster.skills());
+            for (int w = 0; w < workplaceIds.size(); w++) {
+                if (seats[s][w].length < demand[s][w]) {
+                    shortfallCounters[s].increment(demand[s][w] - seats[s][w].length);
+                }
+            }
+        }
+        Map<Long, ShiftAssignmentDto> result = toDtos(workplaceIds, demand, seats, formAssignments,
+                roster, employees, workplaceNames);
+        long elapsed = System.nanoTime() - start;
+        assignTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info("Assigned shifts for {}: {} workplaces, {} employees in {} us",
+                workDate, workplaceIds.size(), roster.size(), elapsed / 1_000);
+        return result;
+    }
+
+    // 必要人数の入力がある職場を、画面の表示順（workplaceNames の順）に並べる
+    List<Long> workplaceOrder(Map<Long, Map<String, Object>> formAssignments, Map<Long, String> workplaceNames) {
+        List<Long> workplaceIds = new ArrayList<>();
+        for (Long workplaceId : workplaceNames.keySet()) {
+            if (formAssignments.containsKey(workplaceId)) {
+                workplaceIds.add(workplaceId);
+            }
+        }
+        return workplaceIds;
+    }
+
+    // 時間帯 × 職場の必要人数
+    int[][] demand(Map<Long, Map<String, Object>> formAssignments, List<Long> workplaceIds) {
+        int[][] demand = new int[SLOTS.length][workplaceIds.size()];
+        for (int w = 0; w < workplaceIds.size(); w++) {
+            Map<String, Object> data = formAssignments.get(workplaceIds.get(w));
+            demand[PreferredShift.TimeSlot.AM.ordinal()][w] = count(data.get("am_count"));
+            demand[PreferredShift.TimeSlot.PM.ordinal()][w] = count(data.get("pm_count"));
+        }
+        return demand;
+    }
+
+    // その時間帯の希望者を、直近の勤務が少ない順に
+    int[] candidates(CompactRoster roster, PreferredShift.DayOfWeek day, PreferredShift.TimeSlot slot, int[] workload) {
+        return day != null ? ShiftAssignmentEngine.byWorkload(roster.candidates(day, slot), workload) : new int[0];
+    }
+
+    // 1つの時間帯の配席。時間帯どうしは候補者を共有しないので、片方だけ解き直してもよい
+    int[][] solve(PreferredShift.TimeSlot slot, int[] demand, int[] candidates, byte[] skills) {
+        long start = System.nanoTime();
+        int[][] seats = engine.solve(demand, candidates, skills);
+        solveTimers[slot.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return seats;
+    }
+
+    // 配席結果を職場ごとの DTO にする。エンティティは割り当てた社員の分だけ employees から引く
+    Map<Long, ShiftAssignmentDto> toDtos(List<Long> workplaceIds, int[][] demand, int[][][] seats,
+            Map<Long, Map<String, Object>> formAssignments, CompactRoster roster,
+            Map<Long, PartTimeEmployee> employees, Map<Long, String> workplaceNames) {
+        byte[] skills = roster.skills();
+        Map<Long, ShiftAssignmentDto> result = new LinkedHashMap<>();
+        for (int w = 0; w < workplaceIds.size(); w++) {
+            Long workplaceId = workplaceIds.get(w);
+            ShiftAssignmentDto dto = new ShiftAssignmentDto();
+            dto.setWorkplaceId(workplaceId);
+            dto.setWorkplaceName(workplaceNames.get(workplaceId));
+            Object tasks = formAssignments.get(workplaceId).get("tasks");
+            if (tasks instanceof List) {
+                dto.setTasks(new ArrayList<>((List<String>) tasks));
+            }
+            for (PreferredShift.TimeSlot slot : SLOTS) {
+                int required = demand[slot.ordinal()][w];
+                int[] assigned = seats[slot.ordinal()][w];
+                List<PartTimeEmployee> assignedEmployees = new ArrayList<>(assigned.length);
+                boolean hasLeader = false;
+                for (int index : assigned) {
+                    PartTimeEmployee employee = employees.get((long) roster.id(index));
+                    // 名簿を読み直す間に削除された社員は外す
+                    if (employee == null) {
+                        continue;
+                    }
+                    assignedEmployees.add(employee);
+                    hasLeader |= skills[index] == ShiftAssignmentEngine.LEADER;
+                }
+                if (slot == PreferredShift.TimeSlot.AM) {
+                    dto.setAmCount(required);
+                    dto.setAmEmployees(assignedEmployees);
+                } else {
+                    dto.setPmCount(required);
+                    dto.setPmEmployees(assignedEmployees);
+                }
+                if (required > 0 && !hasLeader) {
+                    dto.getWarnings().add(slot + ": リーダーが割り当てられていません");
+                }
+                if (assignedEmployees.size() < required) {
+                    dto.getWarnings().add(slot + ": " + (required - assignedEmployees.size()) + "名不足しています");
+                }
+            }
+            result.put(workplaceId, dto);
+        }
+        return result;
+    }
+
+    private static int count(Object value) {
+        return value instanceof Number ? Math.max(((Number) value).intValue(), 0) : 0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.app.service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 同じ社員を同じ日・時間帯に2か所以上へ割り当てる計画を保存しようとしたときの例外。
+ */
+public class ShiftConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    // 直列化しない（メッセージに重複の内容が入っている）
+    private final transient List<ShiftConflictIndex.Conflict> conflicts;
+
+    public ShiftConflictException(List<ShiftConflictIndex.Conflict> conflicts) {
+        super(conflicts.stream().map(ShiftConflictIndex.Conflict::getMessage).collect(Collectors.joining("; ")));
+        this.conflicts = List.copyOf(conflicts);
+    }
+
+    // 保存前の確認をすり抜けた重複（同時に保存された計画など）を DB の一意制約が検出した場合
+    public ShiftConflictException(String message, Throwable cause) {
+        super(message, cause);
+        this.conflicts = List.of();
+    }
+
+    public List<ShiftConflictIndex.Conflict> getConflicts() {
+        return conflicts != null ? conflicts : List.of();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+import com.example.app.entity.ShiftAssignment;
+import com.example.app.entity.Workplace;
+
+/**
+ * 保存しようとしている割り当て行を (勤務日, 時間帯, 社員ID) で引ける索引。
+ * 行を1回走査して作り、同じキーの2行目以降を重複（二重割り当て）として記録する。
+ * キーは1つの long に詰めるので、割り当て1件あたりの確認は定数時間で済む。
+ *
+ * DB の一意制約 uk_shift_assignments_date_slot_employee と同じ条件で、社員のいない行は対象外。
+ */
+public final class ShiftConflictIndex {
+    private static final int SLOTS = PreferredShift.TimeSlot.values().length;
+
+    private final Map<Long, ShiftAssignment> bookings;
+    private final List<Conflict> conflicts;
+
+    private ShiftConflictIndex(Map<Long, ShiftAssignment> bookings, List<Conflict> conflicts) {
+        this.bookings = bookings;
+        this.conflicts = conflicts;
+    }
+
+    public static ShiftConflictIndex of(Collection<ShiftAssignment> rows) {
+        Map<Long, ShiftAssignment> bookings = new HashMap<>(rows.size() * 2);
+        List<Conflict> conflicts = new ArrayList<>();
+        for (ShiftAssignment row : rows) {
+            if (row.getWorkDate() == null || row.getTimeSlot() == null
+                    || row.getEmployee() == null || row.getEmployee().getId() == null) {
+                continue;
+            }
+            ShiftAssignment first = bookings.putIfAbsent(
+                    key(row.getWorkDate(), row.getTimeSlot(), row.getEmployee().getId()), row);
+            if (first != null) {
+                conflicts.add(new Conflict(first, row));
+            }
+        }
+        return new ShiftConflictIndex(bookings, conflicts);
+    }
+
+    public boolean isBooked(LocalDate workDate, PreferredShift.TimeSlot timeSlot, long employeeId) {
+        return bookings.containsKey(key(workDate, timeSlot, employeeId));
+    }
+
+    // その日・時間帯に社員が最初に割り当てられた行（なければ null）
+    public ShiftAssignment bookingOf(LocalDate workDate, PreferredShift.TimeSlot timeSlot, long employeeId) {
+        return bookings.get(key(workDate, timeSlot, employeeId));
+    }
+
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+
+    public List<Conflict> getConflicts() {
+        return conflicts;
+    }
+
+    // 重複があれば保存させない
+    public void requireNoConflicts() {
+        if (hasConflicts()) {
+            throw new ShiftConflictException(conflicts);
+        }
+    }
+
+    // 上位 32 ビットに (日 × 時間帯)、下位 32 ビットに社員ID
+    private static long key(LocalDate workDate, PreferredShift.TimeSlot timeSlot, long employeeId) {
+        long daySlot = workDate.toEpochDay() * SLOTS + timeSlot.ordinal();
+        return (daySlot << 32) | (Math.toIntExact(employeeId) & 0xFFFF_FFFFL);
+    }
+
+    /**
+     * 同じ社員・日・時間帯に割り当てられた2行。
+     */
+    public static final class Conflict {
+        private final ShiftAssignment first;
+        private final ShiftAssignment second;
+
+        Conflict(ShiftAssignment first, ShiftAssignment second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        public ShiftAssignment getFirst() {
+            return first;
+        }
+
+        public ShiftAssignment getSecond() {
+            return second;
+        }
+
+        public String getMessage() {
+            PartTimeEmployee employee = second.getEmployee();
+            String name = employee.getNameKanji() != null ? employee.getNameKanji() : "ID " + employee.getId();
+            return second.getWorkDate() + " " + second.getTimeSlot() + ": " + name + "が"
+                    + workplaceName(first.getWorkplace()) + "と" + workplaceName(second.getWorkplace())
+                    + "に重複して割り当てられています";
+        }
+
+        private static String workplaceName(Workplace workplace) {
+            return workplace != null ? workplace.getName() : "（職場なし）";
+        }
+    }
+}
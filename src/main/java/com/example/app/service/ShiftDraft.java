@@ -0,0 +1,102 @@
+package com.example.app.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.example.app.entity.PreferredShift;
+
+/**
+ * 1日分の割り当ての下書き。作成時点の出勤希望（名簿スナップショット・列指向の名簿・時間帯ごとの候補者の並び）を
+ * 土台として固定し、その上に必要人数を変えた案（{@link Scenario}）を積み重ねる。
+ *
+ * 下書きも案も不変で、案を足すと新しい下書きを返す。案どうしは変えていない時間帯の必要人数・配席の配列を共有する
+ * （書き換えるときに写す）ため、案を比べたり足したりしても DB には触れない。
+ */
+public final class ShiftDraft {
+    private final String id;
+    private final Instant createdAt;
+    private final DayAvailability availability;
+    private final Map<Long, Map<String, Object>> formAssignments;
+    private final List<Long> workplaceIds;
+    // 時間帯ごとの候補者（直近の勤務が少ない順）。どの案でも同じ
+    private final int[][] candidates;
+    private final List<Scenario> scenarios;
+
+    ShiftDraft(String id, Instant createdAt, DayAvailability availability,
+            Map<Long, Map<String, Object>> formAssignments, List<Long> workplaceIds, int[][] candidates,
+            List<Scenario> scenarios) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.availability = availability;
+        this.formAssignments = formAssignments;
+        this.workplaceIds = List.copyOf(workplaceIds);
+        this.candidates = candidates;
+        this.scenarios = List.copyOf(scenarios);
+    }
+
+    public String getId() { return id; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public LocalDate getWorkDate() { return availability.getDate(); }
+
+    public DayAvailability getAvailability() { return availability; }
+
+    public Map<Long, Map<String, Object>> getFormAssignments() { return formAssignments; }
+
+    public List<Long> getWorkplaceIds() { return workplaceIds; }
+
+    public List<Scenario> getScenarios() { return scenarios; }
+
+    int[] candidates(PreferredShift.TimeSlot slot) {
+        return candidates[slot.ordinal()];
+    }
+
+    ShiftDraft withScenario(Scenario scenario) {
+        List<Scenario> next = new ArrayList<>(scenarios.size() + 1);
+        next.addAll(scenarios);
+        next.add(scenario);
+        return new ShiftDraft(id, createdAt, availability, formAssignments, workplaceIds, candidates, next);
+    }
+
+    /**
+     * 必要人数（時間帯 × 職場）とその配席（時間帯 × 職場 × 社員インデックス）。配列は他の案と共有するので書き換えないこと。
+     */
+    public static final class Scenario {
+        private final String name;
+        private final int[][] demand;
+        private final int[][][] seats;
+
+        Scenario(String name, int[][] demand, int[][][] seats) {
+            this.name = name;
+            this.demand = demand;
+            this.seats = seats;
+        }
+
+        public String getName() { return name; }
+
+        int[][] demand() {
+            return demand;
+        }
+
+        int[][][] seats() {
+            return seats;
+        }
+
+        public int demand(PreferredShift.TimeSlot slot, int workplaceIndex) {
+            return demand[slot.ordinal()][workplaceIndex];
+        }
+
+        // 1つの時間帯の必要人数だけを変え、その時間帯だけ解き直した配席で新しい案を作る（他の時間帯は共有する）
+        Scenario withSlot(String name, PreferredShift.TimeSlot slot, int[] slotDemand, int[][] slotSeats) {
+            int[][] nextDemand = demand.clone();
+            int[][][] nextSeats = seats.clone();
+            nextDemand[slot.ordinal()] = slotDemand;
+            nextSeats[slot.ordinal()] = slotSeats;
+            return new Scenario(name, nextDemand, nextSeats);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.app.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.app.dto.ShiftAssignmentDto;
+import com.example.app.entity.PreferredShift;
+
+/**
+ * 割り当ての下書き（{@link ShiftDraft}）をサーバーに置き、必要人数を変えた案を足していく。
+ *
+ * 下書きを作るときだけ出勤希望・勤務実績を読み、以降の案は作成時点の土台から計算する。
+ * 1つの職場の1つの時間帯の人数を変えたときは、その時間帯だけを解き直す（同じ時間帯の職場は候補者を取り合うため、
+ * 解き直す単位は時間帯）。下書きは一定時間で捨て、数にも上限を設ける。作成後に名簿か出勤希望が変わった下書きは
+ * {@link #isCurrent} が false になり、案を保存できない。
+ */
+@Service
+public class ShiftDraftService {
+    private static final Logger logger = LoggerFactory.getLogger(ShiftDraftService.class);
+    private static final PreferredShift.TimeSlot[] SLOTS = PreferredShift.TimeSlot.values();
+    private static final int MAX_DRAFTS = 50;
+    // 比較画面に横に並べられる程度
+    private static final int MAX_SCENARIOS = 8;
+
+    private final ShiftQueryService shiftQueryService;
+    private final ShiftAssignmentService shiftAssignmentService;
+    private final Duration ttl;
+    private final Map<String, ShiftDraft> drafts = new ConcurrentHashMap<>();
+
+    public ShiftDraftService(ShiftQueryService shiftQueryService,
+            ShiftAssignmentService shiftAssignmentService,
+            @Value("${app.shifts.draft-ttl:PT2H}") Duration ttl) {
+        this.shiftQueryService = shiftQueryService;
+        this.shiftAssignmentService = shiftAssignmentService;
+        this.ttl = ttl;
+    }
+
+    // フォームの必要人数を「基本」の案として下書きを作る
+    public ShiftDraft create(LocalDate workDate, Map<Long, Map<String, Object>> formAssignments) {
+        long start = System.nanoTime();
+        DayAvailability availability = shiftQueryService.availability(workDate);
+        int[] workload = shiftQueryService.workload(availability);
+        CompactRoster compact = availability.getCompactRoster();
+        List<Long> workplaceIds = shiftAssignmentService.workplaceOrder(formAssignments,
+                availability.getRoster().getWorkplaceNames());
+        int[][] demand = shiftAssignmentService.demand(formAssignments, workplaceIds);
+        int[][] candidates = new int[SLOTS.length][];
+        int[][][] seats = new int[SLOTS.length][][];
+        for (PreferredShift.TimeSlot slot : SLOTS) {
+            int s = slot.ordinal();
+            candidates[s] = shiftAssignmentService.candidates(compact, availability.getDayOfWeek(), slot, workload);
+            seats[s] = shiftAssignmentService.solve(slot, demand[s], candidates[s], compact.skills());
+        }
+        ShiftDraft draft = new ShiftDraft(UUID.randomUUID().toString(), Instant.now(), availability,
+                Map.copyOf(formAssignments), workplaceIds, candidates,
+                List.of(new ShiftDraft.Scenario("基本", demand, seats)));
+        evict();
+        drafts.put(draft.getId(), draft);
+        logger.info("Created shift draft {} for {} in {} us", draft.getId(), workDate, (System.nanoTime() - start) / 1_000);
+        return draft;
+    }
+
+    public Optional<ShiftDraft> find(String id) {
+        ShiftDraft draft = drafts.get(id);
+        return draft == null || isExpired(draft) ? Optional.empty() : Optional.of(draft);
+    }
+
+    public ShiftDraft get(String id) {
+        return find(id).orElseThrow(() -> notFound(id));
+    }
+
+    // 下書きを作った後に社員・出勤希望が変わっていなければ true。変わっていれば案の配席は保存できない
+    public boolean isCurrent(ShiftDraft draft) {
+        return shiftQueryService.isCurrent(draft.getAvailability());
+    }
+
+    /**
+     * base 番目の案から、1つの職場の1つの時間帯の必要人数だけを変えた案を足す。
+     *
+     * @return 案を足した下書き
+     */
+    public ShiftDraft addScenario(String id, int base, Long workplaceId, PreferredShift.TimeSlot slot, int count) {
+        get(id);
+        ShiftDraft updated = drafts.computeIfPresent(id, (key, draft) -> derive(draft, base, workplaceId, slot, count));
+        if (updated == null) {
+            throw notFound(id);
+        }
+        return updated;
+    }
+
+    // 案の配席を表示・保存用の DTO にする（作成時点の名簿のエンティティを使う）
+    public Map<Long, ShiftAssignmentDto> assignments(ShiftDraft draft, int index) {
+        ShiftDraft.Scenario scenario = scenario(draft, index);
+        DayAvailability availability = draft.getAvailability();
+        return shiftAssignmentService.toDtos(draft.getWorkplaceIds(), scenario.demand(), scenario.seats(),
+                draft.getFormAssignments(), availability.getCompactRoster(),
+                availability.getRoster().getEmployees(), availability.getRoster().getWorkplaceNames());
+    }
+
+    private ShiftDraft derive(ShiftDraft draft, int base, Long workplaceId, PreferredShift.TimeSlot slot, int count) {
+        if (draft.getScenarios().size() >= MAX_SCENARIOS) {
+            throw new IllegalArgumentException("1つの下書きに作れる案は" + MAX_SCENARIOS + "件までです");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("必要人数は0以上を指定してください: " + count);
+        }
+        int w = draft.getWorkplaceIds().indexOf(workplaceId);
+        if (w < 0) {
+            throw new IllegalArgumentException("下書きにない職場です: " + workplaceId);
+        }
+        ShiftDraft.Scenario from = scenario(draft, base);
+        int s = slot.ordinal();
+        int[] slotDemand = from.demand()[s].clone();
+        slotDemand[w] = count;
+        int[][] slotSeats = shiftAssignmentService.solve(slot, slotDemand, draft.candidates(slot),
+                draft.getAvailability().getCompactRoster().skills());
+        String name = "案" + (draft.getScenarios().size() + 1) + ": "
+                + draft.getAvailability().getRoster().getWorkplaceNames().get(workplaceId) + " " + slot + " "
+                + from.demand()[s][w] + "→" + count + "名";
+        return draft.withScenario(from.withSlot(name, slot, slotDemand, slotSeats));
+    }
+
+    private static ShiftDraft.Scenario scenario(ShiftDraft draft, int index) {
+        if (index < 0 || index >= draft.getScenarios().size()) {
+            throw new IllegalArgumentException("案がありません: " + index);
+        }
+        return draft.getScenarios().get(index);
+    }
+
+    // 期限切れを捨て、それでも多ければ古いものから捨てる
+    private void evict() {
+        drafts.values().removeIf(this::isExpired);
+        while (drafts.size() >= MAX_DRAFTS) {
+            drafts.values().stream()
+                    .min(Comparator.comparing(ShiftDraft::getCreatedAt))
+                    .ifPresent(oldest -> drafts.remove(oldest.getId()));
+        }
+    }
+
+    private boolean isExpired(ShiftDraft draft) {
+        return draft.getCreatedAt().plus(ttl).isBefore(Instant.now());
+    }
+
+    private static IllegalArgumentException notFound(String id) {
+        return new IllegalArgumentException("下書きが見つかりません（期限切れの可能性があります）: " + id);
+    }
+}
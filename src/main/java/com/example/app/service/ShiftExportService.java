@@ -0,0 +1,130 @@
+package com.example.app.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.app.entity.ShiftAssignment;
+import com.example.app.repository.ShiftAssignmentRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * 保存済みシフトを CSV で書き出す。行は DB から読んだそばから書き込み、
+ * 書き終えた行は永続化コンテキストから外すので、期間が長くてもメモリ使用量は一定。
+ */
+@Service
+public class ShiftExportService {
+    private static final Logger logger = LoggerFactory.getLogger(ShiftExportService.class);
+    private static final String HEADER = "勤務日,時間帯,職場ID,職場名,タスクID,タスク名,社員ID,社員名,必要人数";
+    private static final String NEWLINE = "\r\n";
+    // Excel で開いたときに UTF-8 と認識させるための BOM
+    private static final char BOM = '\uFEFF';
+    private static final int FLUSH_EVERY = 500;
+
+    private final ShiftAssignmentRepository shiftAssignmentRepository;
+    private final EntityManager entityManager;
+
+    public ShiftExportService(ShiftAssignmentRepository shiftAssignmentRepository, EntityManager entityManager) {
+        this.shiftAssignmentRepository = shiftAssignmentRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param excel true なら先頭に BOM を付ける
+     * @return 書き出した行数（ヘッダーを除く）
+     */
+    @Transactional(readOnly = true)
+    public int writeCsv(LocalDate from, LocalDate to, boolean excel, Writer writer) throws IOException {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("終了日は開始日以降を指定してください: " + from + " - " + to);
+        }
+        long start = System.nanoTime();
+        if (excel) {
+            writer.write(BOM);
+        }
+        writer.write(HEADER);
+        writer.write(NEWLINE);
+        int count = 0;
+        StringBuilder line = new StringBuilder(128);
+        try (Stream<ShiftAssignment> rows = shiftAssignmentRepository.streamByWorkDateBetween(from, to)) {
+            Iterator<ShiftAssignment> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ShiftAssignment row = iterator.next();
+                line.setLength(0);
+                appendRow(line, row);
+                writer.append(line);
+                entityManager.detach(row);
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} shift assignments ({} - {}) in {} ms",
+                count, from, to, (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    static void appendRow(StringBuilder line, ShiftAssignment row) {
+        line.append(row.getWorkDate()).append(',');
+        line.append(row.getTimeSlot() != null ? row.getTimeSlot().name() : "").append(',');
+        if (row.getWorkplace() != null) {
+            line.append(row.getWorkplace().getId()).append(',');
+            appendField(line, row.getWorkplace().getName());
+        } else {
+            line.append(',');
+        }
+        line.append(',');
+        if (row.getTask() != null) {
+            line.append(row.getTask().getId()).append(',');
+            appendField(line, row.getTask().getName());
+        } else {
+            line.append(',');
+        }
+        line.append(',');
+        if (row.getEmployee() != null) {
+            line.append(row.getEmployee().getId()).append(',');
+            appendField(line, row.getEmployee().getNameKanji());
+        } else {
+            line.append(',');
+        }
+        line.append(',');
+        if (row.getRequiredCount() != null) {
+            line.append(row.getRequiredCount());
+        }
+        line.append(NEWLINE);
+    }
+
+    // カンマ・引用符・改行を含む値は RFC 4180 に従って引用符で囲む
+    static void appendField(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
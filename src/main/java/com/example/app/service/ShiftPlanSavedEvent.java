@@ -0,0 +1,19 @@
+package com.example.app.service;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * 勤務日の計画（shift_assignments）が置き換えられたことを知らせるイベント。
+ */
+public class ShiftPlanSavedEvent {
+    private final Set<LocalDate> workDates;
+
+    public ShiftPlanSavedEvent(Set<LocalDate> workDates) {
+        this.workDates = Set.copyOf(workDates);
+    }
+
+    public Set<LocalDate> getWorkDates() {
+        return workDates;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.app.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import com.example.app.dto.ShiftAssignmentDto;
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+import com.example.app.entity.ShiftAssignment;
+import com.example.app.entity.Task;
+import com.example.app.entity.Workplace;
+import com.example.app.repository.ShiftAssignmentBatchRepository;
+
+/**
+ * 割り当て結果を shift_assignments の行（職場 × 時間帯 × 社員）に展開して保存する。
+ */
+@Service
+public class ShiftPlanService {
+    private static final Logger logger = LoggerFactory.getLogger(ShiftPlanService.class);
+
+    private final ShiftAssignmentBatchRepository batchRepository;
+    private final RosterSnapshotService rosterSnapshotService;
+    private final ApplicationEventPublisher eventPublisher;
+    // 保存済みの計画が変わるたびに増える。API の ETag に使う
+    private final AtomicLong version = new AtomicLong();
+    private volatile Instant changedAt = Instant.now();
+
+    public ShiftPlanService(ShiftAssignmentBatchRepository batchRepository, RosterSnapshotService rosterSnapshotService,
+            ApplicationEventPublisher eventPublisher) {
+        this.batchRepository = batchRepository;
+        this.rosterSnapshotService = rosterSnapshotService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // 指定日の計画を置き換え、保存した行数を返す
+    public int savePlan(LocalDate workDate, Map<Long, ShiftAssignmentDto> assignments,
+            Map<Long, List<Long>> taskIdsByWorkplace) {
+        long start = System.nanoTime();
+        List<ShiftAssignment> rows = toRows(workDate, assignments, taskIdsByWorkplace);
+        ShiftConflictIndex.of(rows).requireNoConflicts();
+        int saved = replace(Map.of(workDate, rows));
+        markChangedAfterCommit();
+        logger.info("Saved shift plan for {}: {} rows in {} ms", workDate, saved, (System.nanoTime() - start) / 1_000_000);
+        return saved;
+    }
+
+    // 複数日の計画を1トランザクションで置き換え、保存した行数を返す
+    public int savePlans(Map<LocalDate, Map<Long, ShiftAssignmentDto>> plans, Map<Long, List<Long>> taskIdsByWorkplace) {
+        long start = System.nanoTime();
+        Map<LocalDate, List<ShiftAssignment>> rows = new LinkedHashMap<>();
+        plans.forEach((workDate, assignments) -> rows.put(workDate, toRows(workDate, assignments, taskIdsByWorkplace)));
+        ShiftConflictIndex.of(rows.values().stream().flatMap(List::stream).toList()).requireNoConflicts();
+        int saved = replace(rows);
+        markChangedAfterCommit();
+        logger.info("Saved shift plans for {} days: {} rows in {} ms", plans.size(), saved, (System.nanoTime() - start) / 1_000_000);
+        return saved;
+    }
+
+    // 日ごと置き換えるので、重複しうるのは今回保存する行どうしだけ（保存前に確認済み）。
+    // 残るのは同じ日を同時に保存した場合で、そちらは DB の一意制約で検出する
+    private int replace(Map<LocalDate, List<ShiftAssignment>> rows) {
+        try {
+            int saved = batchRepository.replaceDays(rows);
+            // 勤務実績（WorkloadHistory）はこの日の集計を読み直す
+            eventPublisher.publishEvent(new ShiftPlanSavedEvent(rows.keySet()));
+            return saved;
+        } catch (DuplicateKeyException e) {
+            throw new ShiftConflictException("同じ日の計画が同時に保存されたため、社員の割り当てが重複しました。もう一度保存してください", e);
+        }
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    // 呼び出し元のトランザクションがあればコミット後に、なければすぐに版を進める
+    void markChangedAfterCommit() {
+        TransactionCallbacks.afterCommit(() -> {
+            version.incrementAndGet();
+            changedAt = Instant.now();
+        });
+    }
+
+    List<ShiftAssignment> toRows(LocalDate workDate, Map<Long, ShiftAssignmentDto> assignments,
+            Map<Long, List<Long>> taskIdsByWorkplace) {
+        RosterSnapshot roster = rosterSnapshotService.current();
+        List<ShiftAssignment> rows = new ArrayList<>();
+        for (Map.Entry<Long, ShiftAssignmentDto> entry : assignments.entrySet()) {
+            Workplace workplace = roster.getWorkplacesById().get(entry.getKey());
+            if (workplace == null) {
+                continue;
+            }
+            // 職場に複数のタスクが選ばれている場合は最初のものを主タスクとして記録する
+            List<Long> taskIds = taskIdsByWorkplace.getOrDefault(entry.getKey(), List.of());
+            Task task = taskIds.isEmpty() ? null : roster.getTasksById().get(taskIds.get(0));
+            ShiftAssignmentDto dto = entry.getValue();
+            addRows(rows, workDate, workplace, task, PreferredShift.TimeSlot.AM, dto.getAmCount(), dto.getAmEmployees());
+            addRows(rows, workDate, workplace, task, PreferredShift.TimeSlot.PM, dto.getPmCount(), dto.getPmEmployees());
+        }
+        return rows;
+    }
+
+    private static void addRows(List<ShiftAssignment> rows, LocalDate workDate, Workplace workplace, Task task,
+            PreferredShift.TimeSlot timeSlot, int requiredCount, List<PartTimeEmployee> employees) {
+        if (employees == null) {
+            return;
+        }
+        for (PartTimeEmployee employee : employees) {
+            ShiftAssignment row = new ShiftAssignment();
+            row.setWorkDate(workDate);
+            row.setWorkplace(workplace);
+            row.setTask(task);
+            row.setTimeSlot(timeSlot);
+            row.setRequiredCount(requiredCount);
+            row.setEmployee(employee);
+            rows.add(row);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.app.service;
+
+import java.time.LocalDate;
+
+import org.springframework.stereotype.Service;
+
+import com.example.app.entity.PreferredShift;
+
+/**
+ * シフト画面の読み取り用の窓口。名簿スナップショットと出勤希望の索引から表示に必要なものをまとめて返す。
+ *
+ * キャッシュが温まっていれば DB には触れず、コネクションも取らない。読み込みが必要なときは
+ * 各キャッシュが自分のロックの内側で読み取り専用トランザクションを張る（フラッシュせず、
+ * エンティティのスナップショットも持たない）。索引の構築は名簿の読み込みも同じトランザクションで行うので、
+ * 1回の呼び出しで使うコネクションは多くても1本で、ロック待ちの間にコネクションを握ることもない。
+ */
+@Service
+public class ShiftQueryService {
+    private final RosterSnapshotService rosterSnapshotService;
+    private final AvailabilityIndex availabilityIndex;
+    private final HeadcountAggregator headcountAggregator;
+    private final WorkloadHistory workloadHistory;
+
+    public ShiftQueryService(RosterSnapshotService rosterSnapshotService,
+            AvailabilityIndex availabilityIndex,
+            HeadcountAggregator headcountAggregator,
+            WorkloadHistory workloadHistory) {
+        this.rosterSnapshotService = rosterSnapshotService;
+        this.availabilityIndex = availabilityIndex;
+        this.headcountAggregator = headcountAggregator;
+        this.workloadHistory = workloadHistory;
+    }
+
+    public RosterSnapshot roster() {
+        return rosterSnapshotService.current();
+    }
+
+    public DayAvailability availability(LocalDate date) {
+        PreferredShift.DayOfWeek dayOfWeek = dayOfWeek(date);
+        // 索引を先に引く（未構築なら名簿ごと1つのトランザクションで読み込まれる）
+        CompactRoster compact = availabilityIndex.compactRoster();
+        RosterSnapshot roster = rosterSnapshotService.current();
+        return new DayAvailability(date, dayOfWeek, roster, compact, headcountAggregator.aggregate(compact, dayOfWeek));
+    }
+
+    // 割り当て用: その日より前の直近の勤務コマ数（availability と同じ名簿のインデックス順）
+    public int[] workload(DayAvailability availability) {
+        return workloadHistory.slotsBefore(availability.getDate(), availability.getCompactRoster());
+    }
+
+    // availability を取った後に名簿・出勤希望が変わっていなければ true（取っておいた結果をそのまま保存してよいか）
+    public boolean isCurrent(DayAvailability availability) {
+        return availability.getCompactRoster().isCurrent(rosterSnapshotService.getVersion(), availabilityIndex.getVersion());
+    }
+
+    private static PreferredShift.DayOfWeek dayOfWeek(LocalDate date) {
+        try {
+            return PreferredShift.DayOfWeek.valueOf(date.getDayOfWeek().name());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
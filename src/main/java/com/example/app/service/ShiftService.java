@@ -3,10 +3,11 @@ package com.example.app.service;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +31,9 @@ public class ShiftService {
     @Autowired
     private PreferredShiftRepository preferredShiftRepository;
 
+    @Autowired
+    private HeadcountAggregator headcountAggregator;
+
     public Map<String, Object> getAvailableEmployees(String workDate) {
         logger.info("Fetching available employees for workDate: {}", workDate);
         LocalDate date;
@@ -52,34 +56,28 @@ public class ShiftService {
         List<PreferredShift> preferredShifts = preferredShiftRepository.findByDayOfWeek(targetDay);
         logger.debug("Preferred shifts count: {}", preferredShifts.size());
 
-        List<PartTimeEmployee> employees = employeeRepository.findAll().stream()
-                .filter(emp -> emp != null && emp.getId() != null)
-                .filter(emp -> preferredShifts.stream().anyMatch(ps -> ps.getEmployeeId() != null && ps.getEmployeeId().equals(emp.getId())))
-                .collect(Collectors.toList());
+        // 希望シフトの社員IDをハッシュ化し、社員一覧を1回走査して突き合わせる（セミジョイン）
+        Set<Long> preferredEmployeeIds = new HashSet<>(preferredShifts.size() * 2);
+        for (PreferredShift ps : preferredShifts) {
+            if (ps.getEmployeeId() != null) {
+                preferredEmployeeIds.add(ps.getEmployeeId());
+            }
+        }
+        Map<Long, PartTimeEmployee> employeesById = new LinkedHashMap<>(preferredEmployeeIds.size() * 2);
+        for (PartTimeEmployee emp : employeeRepository.findAll()) {
+            if (emp != null && emp.getId() != null && preferredEmployeeIds.contains(emp.getId())) {
+                employeesById.putIfAbsent(emp.getId(), emp);
+            }
+        }
+        List<PartTimeEmployee> employees = new ArrayList<>(employeesById.values());
         logger.debug("Available employees count: {}", employees.size());
 
-        long leaderCount = employees.stream()
-                .filter(emp -> emp.getSkillLevel() != null && emp.getSkillLevel() == PartTimeEmployee.SkillLevel.LEADER)
-                .count();
-        long generalCount = employees.stream()
-                .filter(emp -> emp.getSkillLevel() != null && emp.getSkillLevel() == PartTimeEmployee.SkillLevel.GENERAL)
-                .count();
-        long newcomerCount = employees.stream()
-                .filter(emp -> emp.getSkillLevel() != null && emp.getSkillLevel() == PartTimeEmployee.SkillLevel.NEWCOMER)
-                .count();
-
-        Set<Long> amEmployees = preferredShifts.stream()
-                .filter(ps -> ps.getTimeSlot() != null && ps.getTimeSlot() == PreferredShift.TimeSlot.AM)
-                .map(PreferredShift::getEmployeeId)
-                .filter(id -> id != null)
-                .collect(Collectors.toSet());
-        Set<Long> pmEmployees = preferredShifts.stream()
-                .filter(ps -> ps.getTimeSlot() != null && ps.getTimeSlot() == PreferredShift.TimeSlot.PM)
-                .map(PreferredShift::getEmployeeId)
-                .filter(id -> id != null)
-                .collect(Collectors.toSet());
-        long totalCountAM = employees.stream().filter(emp -> amEmployees.contains(emp.getId())).count();
-        long totalCountPM = employees.stream().filter(emp -> pmEmployees.contains(emp.getId())).count();
+        Headcount headcount = headcountAggregator.aggregate(preferredShifts, employeesById);
+        long leaderCount = headcount.getLeader();
+        long generalCount = headcount.getGeneral();
+        long newcomerCount = headcount.getNewcomer();
+        long totalCountAM = headcount.getAmTotal();
+        long totalCountPM = headcount.getPmTotal();
 
         logger.info("AM count: {}, PM count: {}, Leaders: {}, General: {}, Newcomers: {}", 
                     totalCountAM, totalCountPM, leaderCount, generalCount, newcomerCount);
@@ -0,0 +1,177 @@
+package com.example.app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.app.dto.DailyWorkload;
+import com.example.app.repository.ShiftAssignmentRepository;
+
+/**
+ * 社員ごとの直近の勤務コマ数（AM・PM を1コマずつ）。割り当てで勤務の少ない社員から選ぶために使う。
+ *
+ * 勤務日ごとの集計をメモリに持ち、足りない日だけ DB から読む。窓が1日進んでも読むのは1日分で済む。
+ * 計画が保存された日は捨てて、次に使うときに読み直す。窓の合計は列指向の名簿のインデックスにそろえた配列で返し、
+ * 名簿・勤務日・保存の版が同じ間は使い回す。
+ */
+@Component
+public class WorkloadHistory {
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadHistory.class);
+
+    private final ShiftAssignmentRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int windowDays;
+    // 読み込み中の JDBC 呼び出しで仮想スレッドを固定しないよう ReentrantLock を使う
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<LocalDate, DayLoad> days = new HashMap<>();
+    private volatile long version;
+    private volatile Window window;
+
+    public WorkloadHistory(ShiftAssignmentRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.assignment.fairness-window-weeks:4}") int windowWeeks) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.windowDays = Math.max(windowWeeks, 0) * 7;
+    }
+
+    /**
+     * workDate の前日までの窓（app.assignment.fairness-window-weeks 週）で、名簿のインデックスごとの勤務コマ数を返す。
+     * 窓が 0 週なら null（公平化しない）。返す配列は共有されるので書き換えないこと。
+     */
+    public int[] slotsBefore(LocalDate workDate, CompactRoster roster) {
+        if (windowDays == 0 || workDate == null || roster == null) {
+            return null;
+        }
+        Window current = window;
+        if (current != null && current.matches(workDate, roster, version)) {
+            return current.slots;
+        }
+        lock.lock();
+        try {
+            current = window;
+            if (current != null && current.matches(workDate, roster, version)) {
+                return current.slots;
+            }
+            long start = System.nanoTime();
+            LocalDate from = workDate.minusDays(windowDays);
+            LocalDate to = workDate.minusDays(1);
+            int loaded = loadMissing(from, to);
+            int[] slots = new int[roster.size()];
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                DayLoad load = days.get(date);
+                for (int i = 0; i < load.employeeIds.length; i++) {
+                    int index = roster.indexOf(load.employeeIds[i]);
+                    if (index >= 0) {
+                        slots[index] += load.slots[i];
+                    }
+                }
+            }
+            // 他の期間を行き来しても窓数個分より多くは持たない
+            if (days.size() > windowDays * 4) {
+                days.keySet().removeIf(date -> date.isBefore(from) || date.isAfter(to));
+            }
+            window = new Window(workDate, roster, version, slots);
+            logger.debug("Workload window before {} built in {} us ({} days loaded)",
+                    workDate, (System.nanoTime() - start) / 1_000, loaded);
+            return slots;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 計画が保存された日の集計を捨てる（コミット後。トランザクション外の保存ならその場で）
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlanSaved(ShiftPlanSavedEvent event) {
+        lock.lock();
+        try {
+            days.keySet().removeAll(event.getWorkDates());
+            version++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ロックを持った状態で呼ぶ。持っていない日を含む範囲を1回の問い合わせで読み、読んだ日数を返す
+    private int loadMissing(LocalDate from, LocalDate to) {
+        LocalDate first = null;
+        LocalDate last = null;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (!days.containsKey(date)) {
+                first = first == null ? date : first;
+                last = date;
+            }
+        }
+        if (first == null) {
+            return 0;
+        }
+        LocalDate rangeFrom = first;
+        LocalDate rangeTo = last;
+        List<DailyWorkload> rows = readOnlyTransaction.execute(
+                status -> repository.countSlotsByWorkDateBetween(rangeFrom, rangeTo));
+        Map<LocalDate, List<DailyWorkload>> byDate = new HashMap<>();
+        for (DailyWorkload row : rows) {
+            byDate.computeIfAbsent(row.getWorkDate(), date -> new ArrayList<>()).add(row);
+        }
+        int loaded = 0;
+        for (LocalDate date = rangeFrom; !date.isAfter(rangeTo); date = date.plusDays(1)) {
+            if (!days.containsKey(date)) {
+                days.put(date, DayLoad.of(byDate.getOrDefault(date, List.of())));
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    // 1日分の社員ID とコマ数
+    private static final class DayLoad {
+        private final long[] employeeIds;
+        private final int[] slots;
+
+        private DayLoad(long[] employeeIds, int[] slots) {
+            this.employeeIds = employeeIds;
+            this.slots = slots;
+        }
+
+        static DayLoad of(List<DailyWorkload> rows) {
+            long[] employeeIds = new long[rows.size()];
+            int[] slots = new int[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                employeeIds[i] = rows.get(i).getEmployeeId();
+                slots[i] = (int) rows.get(i).getSlots();
+            }
+            return new DayLoad(employeeIds, slots);
+        }
+    }
+
+    private static final class Window {
+        private final LocalDate workDate;
+        private final CompactRoster roster;
+        private final long version;
+        private final int[] slots;
+
+        Window(LocalDate workDate, CompactRoster roster, long version, int[] slots) {
+            this.workDate = workDate;
+            this.roster = roster;
+            this.version = version;
+            this.slots = slots;
+        }
+
+        // 列指向の名簿は名簿・索引が変わると作り直されるので、同じインスタンスかで比べる
+        boolean matches(LocalDate workDate, CompactRoster roster, long version) {
+            return this.workDate.equals(workDate) && this.roster == roster && this.version == version;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package db.migration;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 同じ社員を同じ日・同じ時間帯に2か所以上へ割り当てない一意制約を付ける。
+ *
+ * 既存の重複は消さずに shift_assignment_duplicates へ移し、最初に保存された行（id が最小）だけを残す。
+ * 移した件数と内容はログに出すので、運用者が確認して必要なら戻す。
+ * employee_id が NULL の行は対象外（一意制約でも NULL 同士は重複とみなされない）。
+ */
+public class V3__unique_shift_assignment_per_slot extends BaseJavaMigration {
+    private static final Logger logger = LoggerFactory.getLogger(V3__unique_shift_assignment_per_slot.class);
+    // ログに内容を出す行数の上限（件数は全件分出す）
+    private static final int LOGGED_ROWS = 100;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.execute("""
+                    create table shift_assignment_duplicates (
+                        id bigint not null,
+                        required_count integer,
+                        work_date date,
+                        employee_id bigint,
+                        task_id bigint,
+                        workplace_id bigint,
+                        time_slot enum ('AM','PM'),
+                        primary key (id)
+                    ) engine=InnoDB""");
+            int moved = statement.executeUpdate("""
+                    insert into shift_assignment_duplicates
+                        (id, required_count, work_date, employee_id, task_id, workplace_id, time_slot)
+                    select id, required_count, work_date, employee_id, task_id, workplace_id, time_slot
+                    from shift_assignments
+                    where employee_id is not null
+                      and id not in (
+                        select keep_id from (
+                            select min(id) as keep_id
+                            from shift_assignments
+                            where employee_id is not null
+                            group by work_date, time_slot, employee_id
+                        ) kept
+                    )""");
+            if (moved > 0) {
+                logger.warn("Moved {} duplicate shift assignments to shift_assignment_duplicates "
+                        + "(the row with the lowest id was kept in shift_assignments)", moved);
+                try (ResultSet rows = statement.executeQuery(
+                        "select id, work_date, time_slot, employee_id, workplace_id from shift_assignment_duplicates "
+                                + "order by work_date, time_slot, employee_id, id limit " + LOGGED_ROWS)) {
+                    while (rows.next()) {
+                        logger.warn("Duplicate shift assignment id={} date={} slot={} employee={} workplace={}",
+                                rows.getLong("id"), rows.getDate("work_date"), rows.getString("time_slot"),
+                                rows.getLong("employee_id"), rows.getObject("workplace_id"));
+                    }
+                }
+                statement.executeUpdate(
+                        "delete from shift_assignments where id in (select id from shift_assignment_duplicates)");
+            }
+            statement.execute("""
+                    alter table shift_assignments
+                        add constraint uk_shift_assignments_date_slot_employee unique (work_date, time_slot, employee_id)""");
+        }
+    }
+}
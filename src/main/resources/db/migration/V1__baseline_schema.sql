@@ -0,0 +1,66 @@
+-- ddl-auto=update で作られていたスキーマ（Hibernate 6 / MySQL 8）。
+-- 既存の DB には適用せず、baseline-on-migrate で適用済みとして扱う。
+create table part_time_employees (
+    age integer,
+    birthdate date,
+    id bigint not null auto_increment,
+    email varchar(255),
+    gender varchar(255),
+    name_hiragana varchar(255),
+    name_kanji varchar(255),
+    phone varchar(255),
+    skill_level enum ('GENERAL','LEADER','NEWCOMER'),
+    primary key (id)
+) engine=InnoDB;
+
+create table preferred_shifts (
+    employee_id bigint,
+    id bigint not null auto_increment,
+    day_of_week enum ('FRIDAY','MONDAY','SATURDAY','THURSDAY','TUESDAY','WEDNESDAY'),
+    time_slot enum ('AM','PM'),
+    primary key (id)
+) engine=InnoDB;
+
+create table shift_assignments (
+    required_count integer,
+    work_date date,
+    employee_id bigint,
+    id bigint not null auto_increment,
+    task_id bigint,
+    workplace_id bigint,
+    time_slot enum ('AM','PM'),
+    primary key (id)
+) engine=InnoDB;
+
+create table tasks (
+    id bigint not null auto_increment,
+    name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table workplaces (
+    id bigint not null auto_increment,
+    name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+alter table tasks
+    add constraint UKs90mh6056fm69w0ilwka74vut unique (name);
+
+alter table workplaces
+    add constraint UK39dq235ts6uu27imn9tn4pjlw unique (name);
+
+alter table shift_assignments
+    add constraint FK7gij908md9d3k95003lbvisfn
+    foreign key (employee_id)
+    references part_time_employees (id);
+
+alter table shift_assignments
+    add constraint FK8gwpcuhuq7pff6kj5mhpf3u7x
+    foreign key (task_id)
+    references tasks (id);
+
+alter table shift_assignments
+    add constraint FKkkyevv8p5p41764h094rggrj4
+    foreign key (workplace_id)
+    references workplaces (id);
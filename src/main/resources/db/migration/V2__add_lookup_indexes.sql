@@ -0,0 +1,19 @@
+-- 出勤希望は曜日（・時間帯）と社員で、保存済みシフトは勤務日で検索する。
+-- エンティティの @Table(indexes = ...) と同じ名前・列にそろえる。
+create index idx_preferred_shifts_day_slot_employee
+    on preferred_shifts (day_of_week, time_slot, employee_id);
+
+create index idx_preferred_shifts_employee
+    on preferred_shifts (employee_id);
+
+create index idx_shift_assignments_date_workplace
+    on shift_assignments (work_date, workplace_id);
+
+create index idx_part_time_employees_name_kanji
+    on part_time_employees (name_kanji);
+
+create index idx_part_time_employees_name_hiragana
+    on part_time_employees (name_hiragana);
+
+create index idx_part_time_employees_skill_level
+    on part_time_employees (skill_level);
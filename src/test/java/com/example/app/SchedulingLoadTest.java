@@ -0,0 +1,293 @@
+package com.example.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * シフト画面の負荷試験。200人の計画担当者が同時に出勤希望・割り当てフォーム・保存済みシフトを開き、
+ * 一部は割り当てを保存し、社員の編集で名簿の再読み込みが起きる状況で、応答時間の分布とコネクションプールの待ちを測る。
+ *
+ * 通常のテストでは実行しない。./gradlew test -Ploadtest --tests '*SchedulingLoadTest' で実行する。
+ * -Ploadtest.virtual=true で仮想スレッド（spring.threads.virtual.enabled）に切り替え、
+ * -Ploadtest.planners=1000 -Ploadtest.rounds=2 のように同時実行数と回数を変えられる。
+ * どちらのモードでもスループット・応答時間に加えて、プラットフォームスレッド数とヒープ使用量のピーク、
+ * 仮想スレッドがキャリアスレッドを固定した箇所（JFR の jdk.VirtualThreadPinned）を出力する。
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        "logging.level.org.springframework=WARN",
+        "logging.level.org.thymeleaf=WARN",
+        "logging.level.com.example.app=WARN",
+        "spring.thymeleaf.cache=true",
+        "spring.threads.virtual.enabled=${loadtest.virtual:false}"})
+class SchedulingLoadTest {
+    private static final int PLANNERS = Integer.getInteger("loadtest.planners", 200);
+    private static final int ROUNDS = Integer.getInteger("loadtest.rounds", 10);
+    private static final int EMPLOYEES = 500;
+    private static final int WORKPLACES = 20;
+    private static final LocalDate MONDAY = LocalDate.of(2025, 6, 2);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM workplaces", Integer.class) > 0) {
+            return;
+        }
+        for (int w = 1; w <= WORKPLACES; w++) {
+            jdbcTemplate.update("INSERT INTO workplaces (id, name) VALUES (?, ?)", w, "職場" + w);
+        }
+        for (int t = 1; t <= 10; t++) {
+            jdbcTemplate.update("INSERT INTO tasks (id, name) VALUES (?, ?)", t, "タスク" + t);
+        }
+        String[] skills = {"LEADER", "GENERAL", "GENERAL", "NEWCOMER"};
+        String[] days = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY"};
+        List<Object[]> employees = new ArrayList<>();
+        List<Object[]> shifts = new ArrayList<>();
+        for (int id = 1; id <= EMPLOYEES; id++) {
+            employees.add(new Object[] {id, "社員" + id, skills[id % skills.length]});
+            for (int d = 0; d < days.length; d++) {
+                if ((id + d) % 3 != 0) {
+                    shifts.add(new Object[] {id, days[d], (id + d) % 2 == 0 ? "AM" : "PM"});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO part_time_employees (id, name_kanji, skill_level) VALUES (?, ?, ?)",
+                employees);
+        jdbcTemplate.batchUpdate("INSERT INTO preferred_shifts (employee_id, day_of_week, time_slot) VALUES (?, ?, ?)",
+                shifts);
+    }
+
+    @Test
+    void planners() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(32))
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String base = "http://localhost:" + port;
+        // 全員同時に始めるため、ウォームアップを兼ねて1回ずつ開いておく
+        send(client, get(base + "/admin/shifts/assign?workDate=" + MONDAY));
+
+        // 計画担当者（クライアント側）は仮想スレッドにして、サーバー側のスレッド数だけを比べられるようにする
+        ExecutorService planners = Executors.newVirtualThreadPerTaskExecutor();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger errors = new AtomicInteger();
+        long[][] latencies = new long[PLANNERS][];
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < PLANNERS; p++) {
+            int planner = p;
+            futures.add(planners.submit(() -> {
+                start.await();
+                long[] own = new long[ROUNDS * 4];
+                int n = 0;
+                for (int round = 0; round < ROUNDS; round++) {
+                    LocalDate date = MONDAY.plusDays((planner + round) % 6);
+                    own[n++] = timed(client, get(base + "/admin/shifts/preferred?workDate=" + date), errors);
+                    own[n++] = timed(client, get(base + "/admin/shifts/assign?workDate=" + date), errors);
+                    own[n++] = timed(client, get(base + "/api/shifts/assignments?date=" + date), errors);
+                    // 10回に1回は割り当てを保存する
+                    own[n++] = ThreadLocalRandom.current().nextInt(10) == 0
+                            ? timed(client, assign(base, date), errors)
+                            : timed(client, get(base + "/admin/shifts/generate?startDate=" + date), errors);
+                }
+                latencies[planner] = Arrays.copyOf(own, n);
+                return null;
+            }));
+        }
+        // 社員の編集（名簿スナップショットの無効化と再読み込み）を並行して起こす。
+        // 応答を待たずに 200ms ごとに送り、スレッドのモードによらず同じ頻度で無効化されるようにする
+        // 送信側は仮想スレッドのスケジューラに並ばないようプラットフォームスレッドで動かす
+        List<CompletableFuture<HttpResponse<Void>>> edits = new ArrayList<>();
+        ExecutorService editorThread = Executors.newSingleThreadExecutor();
+        Future<?> editor = editorThread.submit(() -> {
+            start.await();
+            while (futures.stream().anyMatch(f -> !f.isDone())) {
+                int id = ThreadLocalRandom.current().nextInt(1, EMPLOYEES + 1);
+                edits.add(client.sendAsync(HttpRequest.newBuilder(URI.create(base + "/admin/employees/edit/" + id))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString("nameKanji=社員" + id + "&skillLevel=GENERAL"))
+                        .build(), HttpResponse.BodyHandlers.discarding()));
+                Thread.sleep(200);
+            }
+            return null;
+        });
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+        heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+        PinnedSites pinned = new PinnedSites();
+
+        long wallStart = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.MINUTES);
+        }
+        editor.get(1, TimeUnit.MINUTES);
+        for (CompletableFuture<HttpResponse<Void>> edit : edits) {
+            if (edit.get(1, TimeUnit.MINUTES).statusCode() >= 400) {
+                errors.incrementAndGet();
+            }
+        }
+        long wallMillis = (System.nanoTime() - wallStart) / 1_000_000;
+        planners.shutdown();
+        editorThread.shutdown();
+        pinned.close();
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").timer();
+        double timeouts = meterRegistry.find("hikaricp.connections.timeout").counters().stream()
+                .mapToDouble(c -> c.count()).sum();
+        System.out.printf("LOADTEST requests=%d edits=%d wall=%d ms throughput=%.0f req/s "
+                        + "p50=%.1f ms p95=%.1f ms p99=%.1f ms max=%.1f ms errors=%d%n",
+                all.length, edits.size(), wallMillis, all.length * 1000.0 / wallMillis,
+                percentile(all, 50), percentile(all, 95), percentile(all, 99), all[all.length - 1] / 1e6, errors.get());
+        System.out.printf("LOADTEST mode=%s planners=%d platform threads peak=%d heap peak=%.0f MB%n",
+                Boolean.getBoolean("loadtest.virtual") ? "virtual" : "platform", PLANNERS,
+                threads.getPeakThreadCount(), heap.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() / 1e6);
+        pinned.print();
+        if (acquire != null) {
+            System.out.printf("LOADTEST pool acquire count=%d mean=%.3f ms max=%.3f ms timeouts=%.0f%n",
+                    acquire.count(), acquire.mean(TimeUnit.MILLISECONDS), acquire.max(TimeUnit.MILLISECONDS), timeouts);
+        }
+        assertEquals(0, errors.get());
+        // 画面はエラーを本文に出して 200 を返すので、プールの取得タイムアウトも失敗として扱う
+        assertEquals(0.0, timeouts);
+    }
+
+    // 仮想スレッドがキャリアスレッドを固定したまま待った箇所を、最初のアプリ・ライブラリのフレームごとに数える
+    private static final class PinnedSites implements AutoCloseable {
+        private final RecordingStream stream = new RecordingStream();
+        private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+        private final LongAdder nanos = new LongAdder();
+
+        PinnedSites() {
+            stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            stream.onEvent("jdk.VirtualThreadPinned", this::record);
+            stream.startAsync();
+        }
+
+        private void record(RecordedEvent event) {
+            nanos.add(event.getDuration().toNanos());
+            String site = "(no stack)";
+            if (event.getStackTrace() != null) {
+                for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                    String type = frame.getMethod().getType().getName();
+                    if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                        site = type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+                        break;
+                    }
+                }
+            }
+            counts.computeIfAbsent(site, k -> new LongAdder()).increment();
+        }
+
+        void print() {
+            long total = counts.values().stream().mapToLong(LongAdder::sum).sum();
+            System.out.printf("LOADTEST pinned events=%d total=%.1f ms%n", total, nanos.sum() / 1e6);
+            counts.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                    .limit(10)
+                    .forEach(e -> System.out.printf("LOADTEST pinned %6d %s%n", e.getValue().sum(), e.getKey()));
+        }
+
+        @Override
+        public void close() {
+            // 溜まっているイベントを処理してから止める
+            try {
+                Thread.sleep(1500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stream.close();
+        }
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static HttpRequest assign(String base, LocalDate date) {
+        StringBuilder form = new StringBuilder("workDate=").append(date);
+        for (int w = 0; w < WORKPLACES; w++) {
+            form.append("&assignments[").append(w).append("][workplaceId]=").append(w + 1)
+                    .append("&assignments[").append(w).append("][am][count]=3")
+                    .append("&assignments[").append(w).append("][pm][count]=2");
+        }
+        return HttpRequest.newBuilder(URI.create(base + "/admin/shifts/assign/save"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form.toString()))
+                .build();
+    }
+
+    private static long timed(HttpClient client, HttpRequest request, AtomicInteger errors) throws Exception {
+        long start = System.nanoTime();
+        int status = send(client, request);
+        if (status >= 400) {
+            errors.incrementAndGet();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static int send(HttpClient client, HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static double percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
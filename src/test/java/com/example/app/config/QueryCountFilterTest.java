@@ -0,0 +1,65 @@
+package com.example.app.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.FilterChain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class QueryCountFilterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryCountFilter filter = new QueryCountFilter(10, meterRegistry);
+    private final JdbcTemplate jdbc = new JdbcTemplate(new QueryCountingDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:query-count;DB_CLOSE_DELAY=-1")));
+
+    // JdbcTemplate のバッチも1文と数え、ヘッダーは本文を書き始めた時点（コミット前）の数で付く
+    @Test
+    void countsJdbcStatementsAndSetsHeaderBeforeCommit() throws Exception {
+        jdbc.execute("CREATE TABLE IF NOT EXISTS items (id INT)");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (request, res) -> {
+            jdbc.queryForObject("SELECT COUNT(*) FROM items", Integer.class);
+            jdbc.batchUpdate("INSERT INTO items (id) VALUES (?)", List.of(new Object[] {1}, new Object[] {2}));
+            res.getWriter().write("body");
+            res.flushBuffer();
+            // コミット後の SQL はヘッダーには入らないが、メトリクスには入る
+            jdbc.queryForObject("SELECT COUNT(*) FROM items", Integer.class);
+        };
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/items"), response, chain);
+
+        assertTrue(response.isCommitted());
+        assertEquals("2", response.getHeader(QueryCountFilter.HEADER));
+        assertEquals(3.0, meterRegistry.get("http.server.requests.queries").summary().totalAmount());
+    }
+
+    @Test
+    void setsHeaderOnResponsesWithoutBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/admin/menu"), response,
+                (request, res) -> jdbc.queryForObject("SELECT 1", Integer.class));
+
+        assertEquals("1", response.getHeader(QueryCountFilter.HEADER));
+    }
+
+    @Test
+    void skipsOtherPaths() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/css/site.css"), response,
+                (request, res) -> jdbc.queryForObject("SELECT 1", Integer.class));
+
+        assertNull(response.getHeader(QueryCountFilter.HEADER));
+    }
+}
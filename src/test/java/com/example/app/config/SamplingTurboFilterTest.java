@@ -0,0 +1,79 @@
+package com.example.app.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+class SamplingTurboFilterTest {
+    private final LoggerContext context = new LoggerContext();
+
+    @Test
+    void passesOneInNForMatchingLoggersAtOrBelowLevel() {
+        SamplingTurboFilter filter = filter("com.example.app.service=5");
+        Logger service = context.getLogger("com.example.app.service.ShiftAssignmentService");
+
+        assertEquals(2, passed(filter, service, Level.INFO, 10));
+        assertEquals(2, passed(filter, service, Level.DEBUG, 10));
+        assertEquals(10, passed(filter, service, Level.WARN, 10));
+    }
+
+    @Test
+    void leavesOtherLoggersAndLevelChecksAlone() {
+        SamplingTurboFilter filter = filter("com.example.app.service=5");
+
+        assertEquals(10, passed(filter, context.getLogger("com.example.app.servicex.Other"), Level.INFO, 10));
+        assertEquals(10, passed(filter, context.getLogger("com.example.app.controller.ShiftController"), Level.INFO, 10));
+        Logger service = context.getLogger("com.example.app.service.ShiftService");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, service, Level.INFO, null, null, null));
+        }
+    }
+
+    @Test
+    void disabledDebugCallsDoNotUseUpSamplingSlots() {
+        SamplingTurboFilter filter = filter("com.example.app.service=10");
+        Logger service = context.getLogger("com.example.app.service.ShiftService");
+        service.setLevel(Level.INFO);
+
+        int info = 0;
+        for (int i = 0; i < 100; i++) {
+            passed(filter, service, Level.DEBUG, 3);
+            info += passed(filter, service, Level.INFO, 1);
+        }
+        assertEquals(10, info);
+    }
+
+    @Test
+    void usesTheLongestMatchingPrefix() {
+        SamplingTurboFilter filter = filter("com.example.app=2", "com.example.app.service.ShiftService=10");
+
+        assertEquals(1, passed(filter, context.getLogger("com.example.app.service.ShiftService"), Level.INFO, 10));
+        assertEquals(5, passed(filter, context.getLogger("com.example.app.service.AvailabilityIndex"), Level.INFO, 10));
+    }
+
+    private SamplingTurboFilter filter(String... samples) {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setLevel("INFO");
+        for (String sample : samples) {
+            filter.addSample(sample);
+        }
+        filter.start();
+        return filter;
+    }
+
+    private static int passed(SamplingTurboFilter filter, Logger logger, Level level, int events) {
+        int passed = 0;
+        for (int i = 0; i < events; i++) {
+            if (filter.decide(null, logger, level, "message {}", new Object[] {i}, null) == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+        return passed;
+    }
+}
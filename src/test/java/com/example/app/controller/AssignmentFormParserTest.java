@@ -0,0 +1,105 @@
+package com.example.app.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.app.dto.AssignmentRequest;
+
+class AssignmentFormParserTest {
+    private final AssignmentFormParser parser = new AssignmentFormParser();
+
+    @Test
+    void parsesWorkplaceCountsAndTasks() {
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        params.put("workDate", List.of("2025-06-02"));
+        params.put("assignments[0][workplaceId]", List.of("3"));
+        params.put("assignments[0][am][count]", List.of("2"));
+        params.put("assignments[0][pm][count]", List.of(""));
+        params.put("assignments[0][tasks][]", List.of("1", "4", "1"));
+        params.put("assignments[1][workplaceId]", List.of("5"));
+        params.put("assignments[1][pm][count]", List.of("1"));
+
+        AssignmentRequest request = parser.parse(params);
+
+        assertEquals(List.of(), request.getErrors());
+        assertEquals(2, request.getWorkplaces().size());
+        AssignmentRequest.WorkplaceAssignment first = request.getWorkplaces().get(0);
+        assertEquals(3L, first.getWorkplaceId());
+        assertEquals(2, first.getAmCount());
+        assertEquals(0, first.getPmCount());
+        assertEquals(List.of(1L, 4L), first.getTaskIds());
+        AssignmentRequest.WorkplaceAssignment second = request.getWorkplaces().get(1);
+        assertEquals(5L, second.getWorkplaceId());
+        assertEquals(0, second.getAmCount());
+        assertEquals(1, second.getPmCount());
+    }
+
+    // 人数が職場IDより先に届いても同じ結果になること
+    @Test
+    void doesNotDependOnParameterOrder() {
+        Map<String, List<String>> params = largeForm(20);
+        List<Map.Entry<String, List<String>>> entries = new ArrayList<>(params.entrySet());
+        Collections.reverse(entries);
+        Map<String, List<String>> reversed = new LinkedHashMap<>();
+        entries.forEach(e -> reversed.put(e.getKey(), e.getValue()));
+
+        AssignmentRequest expected = parser.parse(params);
+        AssignmentRequest actual = parser.parse(reversed);
+
+        assertEquals(summary(expected), summary(actual));
+        assertEquals(20, actual.getWorkplaces().size());
+    }
+
+    // 未知の時間帯（night など）は旧実装と同じく読み飛ばす
+    @Test
+    void reportsInvalidValues() {
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        params.put("assignments[0][workplaceId]", List.of("x"));
+        params.put("assignments[1][workplaceId]", List.of("2"));
+        params.put("assignments[1][am][count]", List.of("-1"));
+        params.put("assignments[1][pm][count]", List.of("a"));
+        params.put("assignments[1][night][count]", List.of("1"));
+        params.put("assignments[1][tasks][]", List.of("b"));
+        params.put("assignments[2][am][count]", List.of("1"));
+        params.put("assignments[][am][count]", List.of("1"));
+
+        AssignmentRequest request = parser.parse(params);
+
+        assertEquals(List.of(
+                "職場IDが無効です: x",
+                "人数の入力値が無効です: a",
+                "タスクIDが無効です: b",
+                "人数は0以上でなければなりません: -1 (職場ID: 2)",
+                "無効なインデックス: 2"), request.getErrors());
+        assertEquals(1, request.getWorkplaces().size());
+        assertEquals(0, request.getWorkplaces().get(0).getAmCount());
+    }
+
+    private static Map<String, List<String>> largeForm(int workplaces) {
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        params.put("workDate", List.of("2025-06-02"));
+        for (int i = 0; i < workplaces; i++) {
+            params.put("assignments[" + i + "][workplaceId]", List.of(String.valueOf(i + 1)));
+            params.put("assignments[" + i + "][am][count]", List.of(String.valueOf(i % 4)));
+            params.put("assignments[" + i + "][pm][count]", List.of(String.valueOf(i % 3)));
+            params.put("assignments[" + i + "][tasks][]", List.of("1", "3", String.valueOf(6 + i % 5)));
+        }
+        return params;
+    }
+
+    private static List<String> summary(AssignmentRequest request) {
+        List<String> lines = new ArrayList<>();
+        for (AssignmentRequest.WorkplaceAssignment w : request.getWorkplaces()) {
+            lines.add(w.getIndex() + ":" + w.getWorkplaceId() + ":" + w.getAmCount() + ":" + w.getPmCount()
+                    + ":" + w.getTaskIds());
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.app.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.example.app.dto.AssignmentView;
+import com.example.app.repository.ShiftAssignmentRepository;
+import com.example.app.service.AvailabilityIndex;
+import com.example.app.service.HeadcountAggregator;
+import com.example.app.service.RosterSnapshotService;
+import com.example.app.service.ShiftPlanService;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ShiftApiControllerTest {
+    private static final LocalDate MONDAY = LocalDate.of(2025, 6, 2);
+    private static final Instant CHANGED_AT = Instant.parse("2025-06-01T09:00:00Z");
+
+    @Mock
+    private RosterSnapshotService rosterSnapshotService;
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ShiftPlanService shiftPlanService;
+
+    @Mock
+    private ShiftAssignmentRepository shiftAssignmentRepository;
+
+    private ShiftApiController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new ShiftApiController(rosterSnapshotService, availabilityIndex, new HeadcountAggregator(),
+                shiftPlanService, shiftAssignmentRepository);
+        when(rosterSnapshotService.getChangedAt()).thenReturn(CHANGED_AT);
+        when(availabilityIndex.getChangedAt()).thenReturn(CHANGED_AT);
+        when(shiftPlanService.getChangedAt()).thenReturn(CHANGED_AT);
+        when(shiftAssignmentRepository.findDetailedByWorkDate(MONDAY)).thenReturn(List.of());
+    }
+
+    @Test
+    void answersNotModifiedWithoutQueryingWhenPlanVersionIsUnchanged() {
+        when(shiftPlanService.getVersion()).thenReturn(3L);
+        ResponseEntity<List<AssignmentView>> first = controller.assignments(MONDAY, request(null, null));
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+        assertEquals(CHANGED_AT.toEpochMilli(), first.getHeaders().getLastModified());
+
+        ServletWebRequest conditional = request(etag, null);
+        assertNull(controller.assignments(MONDAY, conditional));
+        assertEquals(304, conditional.getResponse().getStatus());
+        verify(shiftAssignmentRepository).findDetailedByWorkDate(MONDAY);
+    }
+
+    @Test
+    void answersFullResponseAfterPlanIsSaved() {
+        when(shiftPlanService.getVersion()).thenReturn(3L);
+        String etag = controller.assignments(MONDAY, request(null, null)).getHeaders().getETag();
+
+        when(shiftPlanService.getVersion()).thenReturn(4L);
+        ResponseEntity<List<AssignmentView>> changed = controller.assignments(MONDAY, request(etag, null));
+
+        assertNotNull(changed);
+        assertEquals(200, changed.getStatusCode().value());
+    }
+
+    @Test
+    void honoursIfModifiedSinceForAvailability() {
+        ServletWebRequest conditional = request(null, CHANGED_AT.toEpochMilli());
+
+        ResponseEntity<Map<String, Object>> response = controller.availability(MONDAY, conditional);
+
+        assertNull(response);
+        assertEquals(304, conditional.getResponse().getStatus());
+        verify(availabilityIndex, never()).shiftsFor(any());
+        verify(rosterSnapshotService, never()).current();
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch, Long ifModifiedSince) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/shifts/assignments");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        if (ifModifiedSince != null) {
+            request.addHeader("If-Modified-Since", ifModifiedSince);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
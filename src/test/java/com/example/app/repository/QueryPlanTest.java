@@ -0,0 +1,155 @@
+package com.example.app.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.app.dto.EmployeeSearch;
+import com.example.app.entity.PartTimeEmployee;
+
+/**
+ * Flyway のマイグレーションで作ったスキーマに対して、主な検索の実行計画がインデックスを使うことと、一意制約が効くことを確かめる。
+ * 社員検索は Hibernate が生成した SQL をそのまま EXPLAIN する。
+ * H2 を MySQL 互換モードで使い、ddl-auto=validate でエンティティとスキーマの食い違いも検出する。
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plan;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.app.repository.QueryPlanTest$CapturingInspector"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+    private static final String KANA = "あいうえおかきくけこさしすせそたちつてとなにぬねのはひふへほまみむめもやゆよらりるれろわ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PartTimeEmployeeRepository employeeRepository;
+
+    // 件数が少ないと全件走査の方が安く見積もられるため、ある程度の行を入れておく。
+    // ANALYZE はコミットを伴うので、テストごとのロールバックに頼らずクラスで1回だけ入れる
+    @BeforeAll
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO workplaces (id, name) VALUES (1, '選果'), (2, '第1ハウス')");
+        jdbcTemplate.update("INSERT INTO tasks (id, name) VALUES (1, '収穫')");
+        String[] days = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY"};
+        for (int id = 1; id <= 500; id++) {
+            jdbcTemplate.update("INSERT INTO part_time_employees (id, name_kanji, name_hiragana, skill_level) "
+                    + "VALUES (?, ?, ?, ?)", id, "社員" + id, kana(id) + " しゃいん", id % 10 == 0 ? "LEADER" : "GENERAL");
+            jdbcTemplate.update("INSERT INTO preferred_shifts (employee_id, day_of_week, time_slot) VALUES (?, ?, ?)",
+                    id, days[id % days.length], id % 2 == 0 ? "AM" : "PM");
+            jdbcTemplate.update("INSERT INTO shift_assignments (work_date, workplace_id, task_id, time_slot, "
+                    + "required_count, employee_id) VALUES (DATEADD('DAY', ?, DATE '2025-06-01'), ?, 1, 'AM', 2, ?)",
+                    id % 60, id % 2 + 1, id);
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void preferredShiftsByDayUseDaySlotIndex() {
+        // PreferredShiftRepository.findByDayOfWeek
+        assertUsesIndex("SELECT * FROM preferred_shifts WHERE day_of_week = 'MONDAY'",
+                "idx_preferred_shifts_day_slot_employee");
+        // AvailabilityIndex などの曜日・時間帯での検索
+        assertUsesIndex("SELECT employee_id FROM preferred_shifts WHERE day_of_week = 'MONDAY' AND time_slot = 'AM'",
+                "idx_preferred_shifts_day_slot_employee");
+    }
+
+    @Test
+    void preferredShiftsByEmployeeUseEmployeeIndex() {
+        // PreferredShiftRepository.findByEmployeeId / deleteByEmployeeId
+        assertUsesIndex("SELECT * FROM preferred_shifts WHERE employee_id = 42", "idx_preferred_shifts_employee");
+        assertUsesIndex("DELETE FROM preferred_shifts WHERE employee_id = 42", "idx_preferred_shifts_employee");
+    }
+
+    @Test
+    void shiftAssignmentsByDateUseDateIndex() {
+        // ShiftAssignmentRepository.findDetailedByWorkDate
+        assertUsesIndex("SELECT * FROM shift_assignments a LEFT JOIN workplaces w ON w.id = a.workplace_id "
+                + "LEFT JOIN tasks t ON t.id = a.task_id LEFT JOIN part_time_employees e ON e.id = a.employee_id "
+                + "WHERE a.work_date = DATE '2025-06-02' ORDER BY a.id", "idx_shift_assignments_date_workplace");
+        // ShiftAssignmentRepository.streamByWorkDateBetween（CSV エクスポート）
+        assertUsesIndex("SELECT * FROM shift_assignments a "
+                + "WHERE a.work_date BETWEEN DATE '2025-06-01' AND DATE '2025-06-07' ORDER BY a.work_date, a.time_slot, a.id",
+                "idx_shift_assignments_date_workplace");
+        // ShiftAssignmentBatchRepository.replaceDays
+        assertUsesIndex("DELETE FROM shift_assignments WHERE work_date = DATE '2025-06-02'",
+                "idx_shift_assignments_date_workplace");
+    }
+
+    @Test
+    void shiftAssignmentsRejectDoubleBooking() {
+        // 社員1は 2025-06-02 の AM に職場2で割り当て済み。同じ時間帯に職場1へは入れない
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update("INSERT INTO shift_assignments "
+                + "(work_date, workplace_id, task_id, time_slot, required_count, employee_id) "
+                + "VALUES (DATE '2025-06-02', 1, 1, 'AM', 2, 1)"));
+    }
+
+    @Test
+    void employeeSearchUsesNameIndex() {
+        // PartTimeEmployeeRepository.countBySearch の氏名の前方一致（漢字・ひらがなで列を選ぶ）
+        assertUsesIndex(generatedSql(() -> employeeRepository.countBySearch(search("社員12", null))),
+                "idx_part_time_employees_name_kanji", "社員12%");
+        assertUsesIndex(generatedSql(() -> employeeRepository.countBySearch(search(kana(12), null))),
+                "idx_part_time_employees_name_hiragana", kana(12) + "%");
+        // ページングは主キーの範囲検索（id 順に読むので ORDER BY + LIMIT で早く止まる）
+        assertUsesIndex(generatedSql(() -> employeeRepository.findPageAfter(250L, search(null, null), Limit.of(11))),
+                "primary_key", 250L, 11);
+        assertUsesIndex(generatedSql(() -> employeeRepository.findPageBefore(250L, search(null, null), Limit.of(11))),
+                "primary_key", 250L, 11);
+    }
+
+    // リポジトリが実際に送る SQL を1文だけ取り出す
+    private static String generatedSql(Runnable query) {
+        CapturingInspector.STATEMENTS.clear();
+        query.run();
+        assertEquals(1, CapturingInspector.STATEMENTS.size(), CapturingInspector.STATEMENTS::toString);
+        return CapturingInspector.STATEMENTS.get(0);
+    }
+
+    // ふりがなの先頭2文字を id ごとに変える（前方一致で絞り込めるように）
+    private static String kana(int id) {
+        return "" + KANA.charAt(id % KANA.length()) + KANA.charAt(id / KANA.length() % KANA.length());
+    }
+
+    private static EmployeeSearch search(String name, PartTimeEmployee.SkillLevel skillLevel) {
+        EmployeeSearch search = new EmployeeSearch();
+        search.setName(name);
+        search.setSkillLevel(skillLevel);
+        return search;
+    }
+
+    // args は SQL のパラメータ（? の順）
+    private void assertUsesIndex(String sql, String index, Object... args) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+        assertTrue(plan.toLowerCase(Locale.ROOT).contains(index), () -> "Expected " + index + " in plan:\n" + plan);
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
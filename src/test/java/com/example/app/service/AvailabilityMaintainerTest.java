@@ -0,0 +1,91 @@
+package com.example.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+import com.example.app.repository.PreferredShiftRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AvailabilityMaintainerTest {
+    private static final PreferredShift.DayOfWeek MON = PreferredShift.DayOfWeek.MONDAY;
+
+    private final PreferredShiftRepository repository = mock(PreferredShiftRepository.class);
+    private final RosterSnapshotService rosterSnapshotService = mock(RosterSnapshotService.class);
+    private final AvailabilityIndex index = new AvailabilityIndex(repository, rosterSnapshotService,
+            mock(PlatformTransactionManager.class));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AvailabilityMaintainer maintainer = new AvailabilityMaintainer(index, meterRegistry);
+    private final List<PreferredShift> stored = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(rosterSnapshotService.current()).thenReturn(new RosterSnapshot(1, Instant.EPOCH, List.of(
+                employee(1L, PartTimeEmployee.SkillLevel.LEADER),
+                employee(2L, PartTimeEmployee.SkillLevel.GENERAL),
+                employee(3L, null)), List.of(), List.of()));
+        when(repository.findAll()).thenAnswer(invocation -> List.copyOf(stored));
+        stored.add(shift(1L, MON, PreferredShift.TimeSlot.AM));
+        stored.add(shift(2L, MON, PreferredShift.TimeSlot.PM));
+        stored.add(shift(3L, MON, PreferredShift.TimeSlot.AM));
+        // 名簿にいない社員の希望は数えない
+        stored.add(shift(9L, MON, PreferredShift.TimeSlot.AM));
+    }
+
+    @Test
+    void appliesChangeEventsAsDeltas() {
+        assertEquals(new Headcount(2, 1, 1, 1, 0).toMap(), index.headcount(MON).toMap());
+
+        replace(2L, shift(2L, MON, PreferredShift.TimeSlot.AM), shift(2L, MON, PreferredShift.TimeSlot.PM));
+        assertEquals(new Headcount(3, 1, 1, 1, 0).toMap(), index.headcount(MON).toMap());
+
+        replace(1L);
+        assertEquals(new Headcount(2, 1, 0, 1, 0).toMap(), index.headcount(MON).toMap());
+        assertEquals(0, index.verify());
+    }
+
+    @Test
+    void verificationRebuildsWhenAChangeWasMissed() {
+        index.headcount(MON);
+        // イベントを出さずに DB だけが変わった
+        stored.add(shift(1L, MON, PreferredShift.TimeSlot.PM));
+
+        maintainer.verify();
+
+        assertEquals(new Headcount(2, 2, 1, 1, 0).toMap(), index.headcount(MON).toMap());
+        assertEquals(0, index.verify());
+        assertEquals(3.0, meterRegistry.counter("availability.index.drift").count());
+    }
+
+    private void replace(long employeeId, PreferredShift... shifts) {
+        stored.removeIf(shift -> shift.getEmployeeId() == employeeId);
+        stored.addAll(List.of(shifts));
+        maintainer.onPreferredShiftsChanged(new PreferredShiftsChangedEvent(employeeId, List.of(shifts)));
+    }
+
+    private static PartTimeEmployee employee(Long id, PartTimeEmployee.SkillLevel skillLevel) {
+        PartTimeEmployee employee = new PartTimeEmployee();
+        employee.setId(id);
+        employee.setSkillLevel(skillLevel);
+        return employee;
+    }
+
+    private static PreferredShift shift(Long employeeId, PreferredShift.DayOfWeek day, PreferredShift.TimeSlot slot) {
+        PreferredShift shift = new PreferredShift();
+        shift.setEmployeeId(employeeId);
+        shift.setDayOfWeek(day);
+        shift.setTimeSlot(slot);
+        return shift;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.StringReader;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.app.dto.ImportResult;
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+import com.example.app.repository.BulkImportRepository;
+import com.example.app.repository.PreferredShiftRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BulkImportServiceTest {
+    private final BulkImportRepository repository = mock(BulkImportRepository.class);
+    private final RosterSnapshotService rosterSnapshotService = mock(RosterSnapshotService.class);
+    private final AvailabilityIndex availabilityIndex = mock(AvailabilityIndex.class);
+    private final BulkImportService service = new BulkImportService(repository, rosterSnapshotService, availabilityIndex);
+
+    @Test
+    void importsValidEmployeesAndReportsInvalidRowsByLine() throws Exception {
+        List<PartTimeEmployee> inserted = new ArrayList<>();
+        when(repository.insertEmployees(anyList())).thenAnswer(invocation -> {
+            List<PartTimeEmployee> rows = invocation.getArgument(0);
+            inserted.addAll(rows);
+            return rows.size();
+        });
+        String csv = "\uFEFFskill_level,name_kanji,birthdate,email\r\n"
+                + "leader,\"山田, 太郎\",1990-04-01,yamada@example.com\r\n"
+                + "GENERAL,,1990-04-01,\r\n"
+                + "\r\n"
+                + "NEWCOMER,\"佐藤\n花子\",1990/13/01,\r\n"
+                + "BOSS,鈴木,,\r\n"
+                + "GENERAL,田中,,tanaka\r\n"
+                + "NEWCOMER,高橋,,\r\n";
+
+        ImportResult result = service.importEmployees(new StringReader(csv));
+
+        assertEquals(6, result.getReadRows());
+        assertEquals(2, result.getImportedRows());
+        assertEquals(List.of(3, 5, 7, 8), result.getErrors().stream().map(ImportResult.RowError::getLine).toList());
+        assertEquals("山田, 太郎", inserted.get(0).getNameKanji());
+        assertEquals(PartTimeEmployee.SkillLevel.LEADER, inserted.get(0).getSkillLevel());
+        assertEquals(LocalDate.of(1990, 4, 1), inserted.get(0).getBirthdate());
+        assertEquals("高橋", inserted.get(1).getNameKanji());
+        assertNull(inserted.get(1).getBirthdate());
+        verify(rosterSnapshotService).invalidate();
+        verify(availabilityIndex).rebuild();
+    }
+
+    @Test
+    void importedEmployeesAreCountedWhenTheirPreferredShiftsAreEdited() throws Exception {
+        List<PartTimeEmployee> roster = new ArrayList<>();
+        RosterSnapshotService snapshots = mock(RosterSnapshotService.class);
+        when(snapshots.current()).thenAnswer(invocation ->
+                new RosterSnapshot(roster.size(), Instant.EPOCH, List.copyOf(roster), List.of(), List.of()));
+        PreferredShiftRepository preferredShiftRepository = mock(PreferredShiftRepository.class);
+        when(preferredShiftRepository.findAll()).thenReturn(List.of());
+        AvailabilityIndex index = new AvailabilityIndex(preferredShiftRepository, snapshots,
+                mock(PlatformTransactionManager.class));
+        AvailabilityMaintainer maintainer = new AvailabilityMaintainer(index, new SimpleMeterRegistry());
+        when(repository.insertEmployees(anyList())).thenAnswer(invocation -> {
+            List<PartTimeEmployee> rows = invocation.getArgument(0);
+            for (PartTimeEmployee employee : rows) {
+                employee.setId(roster.size() + 1L);
+                roster.add(employee);
+            }
+            return rows.size();
+        });
+        // 取り込み前に索引ができている
+        assertEquals(0, index.count(PreferredShift.DayOfWeek.MONDAY, PreferredShift.TimeSlot.AM));
+
+        new BulkImportService(repository, snapshots, index)
+                .importEmployees(new StringReader("name_kanji,skill_level\n山田,LEADER\n"));
+        PreferredShift shift = new PreferredShift();
+        shift.setEmployeeId(1L);
+        shift.setDayOfWeek(PreferredShift.DayOfWeek.MONDAY);
+        shift.setTimeSlot(PreferredShift.TimeSlot.AM);
+        maintainer.onPreferredShiftsChanged(new PreferredShiftsChangedEvent(1L, List.of(shift)));
+
+        assertEquals(1, index.count(PreferredShift.DayOfWeek.MONDAY, PreferredShift.TimeSlot.AM));
+        assertEquals(1, index.count(PreferredShift.DayOfWeek.MONDAY, PreferredShift.TimeSlot.AM,
+                PartTimeEmployee.SkillLevel.LEADER));
+    }
+
+    @Test
+    void insertsInChunks() throws Exception {
+        when(repository.insertEmployees(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        StringBuilder csv = new StringBuilder("name_kanji\n");
+        int rows = BulkImportService.CHUNK_SIZE * 2 + 1;
+        for (int i = 0; i < rows; i++) {
+            csv.append("社員").append(i).append('\n');
+        }
+
+        ImportResult result = service.importEmployees(new StringReader(csv.toString()));
+
+        assertEquals(rows, result.getImportedRows());
+        verify(repository, times(3)).insertEmployees(anyList());
+    }
+
+    @Test
+    void rejectsUnknownEmployeesAndDuplicateShifts() throws Exception {
+        when(repository.findEmployeeIds()).thenReturn(Set.of(1L, 2L));
+        when(repository.findPreferredShiftKeys()).thenReturn(Set.of(BulkImportRepository.preferredShiftKey(
+                2L, PreferredShift.DayOfWeek.MONDAY, PreferredShift.TimeSlot.AM)));
+        when(repository.insertPreferredShifts(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        String csv = "employee_id,day_of_week,time_slot\n"
+                + "1,MONDAY,AM\n"
+                + "1,monday,pm\n"
+                + "1,MONDAY,AM\n"
+                + "2,MONDAY,AM\n"
+                + "3,MONDAY,AM\n"
+                + "1,SUNDAY,AM\n"
+                + "x,MONDAY,AM\n";
+
+        ImportResult result = service.importPreferredShifts(new StringReader(csv));
+
+        assertEquals(2, result.getImportedRows());
+        assertEquals(5, result.getErrorCount());
+        assertEquals("2行目と重複しています", result.getErrors().get(0).getMessage());
+        verify(availabilityIndex).rebuild();
+    }
+
+    @Test
+    void retriesRejectedChunkRowByRow() throws Exception {
+        when(repository.insertEmployees(anyList())).thenAnswer(invocation -> {
+            List<PartTimeEmployee> rows = invocation.getArgument(0);
+            if (rows.stream().anyMatch(employee -> employee.getNameKanji().equals("重複"))) {
+                throw new DataIntegrityViolationException("duplicate");
+            }
+            return rows.size();
+        });
+
+        ImportResult result = service.importEmployees(new StringReader("name_kanji\n山田\n重複\n佐藤\n"));
+
+        assertEquals(2, result.getImportedRows());
+        assertEquals(1, result.getErrorCount());
+        assertEquals(3, result.getErrors().get(0).getLine());
+    }
+
+    @Test
+    void stopsWhenRequiredColumnIsMissing() throws Exception {
+        ImportResult result = service.importPreferredShifts(new StringReader("employee_id,day_of_week\n1,MONDAY\n"));
+
+        assertEquals(0, result.getReadRows());
+        assertTrue(result.getErrors().get(0).getMessage().contains("time_slot"));
+        verify(repository, never()).insertPreferredShifts(anyList());
+        verify(availabilityIndex, never()).rebuild();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+
+class CompactRosterTest {
+    private static final PreferredShift.DayOfWeek MON = PreferredShift.DayOfWeek.MONDAY;
+    private static final PreferredShift.DayOfWeek SAT = PreferredShift.DayOfWeek.SATURDAY;
+
+    @Test
+    void ordersEmployeesByIdAndPacksPreferencesPerDay() {
+        Map<Long, PartTimeEmployee> employees = new LinkedHashMap<>();
+        employees.put(30L, employee(30L, PartTimeEmployee.SkillLevel.NEWCOMER));
+        employees.put(10L, employee(10L, PartTimeEmployee.SkillLevel.LEADER));
+        employees.put(20L, employee(20L, null));
+        List<PreferredShift> shifts = List.of(
+                shift(30L, MON, PreferredShift.TimeSlot.PM),
+                shift(10L, MON, PreferredShift.TimeSlot.AM),
+                shift(10L, MON, PreferredShift.TimeSlot.PM),
+                shift(10L, SAT, PreferredShift.TimeSlot.PM),
+                shift(99L, MON, PreferredShift.TimeSlot.AM));
+
+        CompactRoster roster = CompactRoster.of(employees, shifts);
+
+        assertEquals(3, roster.size());
+        assertArrayEquals(new int[] {10, 20, 30}, new int[] {roster.id(0), roster.id(1), roster.id(2)});
+        assertArrayEquals(new byte[] {ShiftAssignmentEngine.LEADER, ShiftAssignmentEngine.UNKNOWN,
+                ShiftAssignmentEngine.NEWCOMER}, roster.skills());
+        assertEquals(0b11, roster.dayMask(0, MON));
+        assertEquals(0b10, roster.dayMask(0, SAT));
+        assertEquals(0, roster.dayMask(1, MON));
+        assertTrue(roster.available(2, MON, PreferredShift.TimeSlot.PM));
+        assertFalse(roster.available(2, MON, PreferredShift.TimeSlot.AM));
+        // 名簿にいない社員（99）の希望は含めない
+        assertEquals(-1, roster.indexOf(99L));
+        assertEquals(2, roster.indexOf(30L));
+        assertArrayEquals(new int[] {0, 2}, roster.candidates(MON, PreferredShift.TimeSlot.PM));
+        assertArrayEquals(new int[] {0}, roster.candidates(MON, PreferredShift.TimeSlot.AM));
+    }
+
+    @Test
+    void materializesShiftsForDisplayInIdOrder() {
+        Map<Long, PartTimeEmployee> employees = new LinkedHashMap<>();
+        employees.put(2L, employee(2L, PartTimeEmployee.SkillLevel.GENERAL));
+        employees.put(1L, employee(1L, PartTimeEmployee.SkillLevel.GENERAL));
+        CompactRoster roster = CompactRoster.of(employees, List.of(
+                shift(2L, MON, PreferredShift.TimeSlot.AM),
+                shift(1L, MON, PreferredShift.TimeSlot.PM),
+                shift(1L, MON, PreferredShift.TimeSlot.AM)));
+
+        List<PreferredShift> shifts = roster.shiftsFor(MON);
+
+        assertEquals(List.of(1L, 1L, 2L), shifts.stream().map(PreferredShift::getEmployeeId).toList());
+        assertEquals(List.of(PreferredShift.TimeSlot.AM, PreferredShift.TimeSlot.PM, PreferredShift.TimeSlot.AM),
+                shifts.stream().map(PreferredShift::getTimeSlot).toList());
+        assertTrue(roster.shiftsFor(SAT).isEmpty());
+    }
+
+    private static PartTimeEmployee employee(Long id, PartTimeEmployee.SkillLevel skillLevel) {
+        PartTimeEmployee employee = new PartTimeEmployee();
+        employee.setId(id);
+        employee.setSkillLevel(skillLevel);
+        return employee;
+    }
+
+    private static PreferredShift shift(Long employeeId, PreferredShift.DayOfWeek day, PreferredShift.TimeSlot slot) {
+        PreferredShift shift = new PreferredShift();
+        shift.setEmployeeId(employeeId);
+        shift.setDayOfWeek(day);
+        shift.setTimeSlot(slot);
+        return shift;
+    }
+}
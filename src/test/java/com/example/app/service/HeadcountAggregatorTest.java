@@ -0,0 +1,135 @@
+package com.example.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+
+class HeadcountAggregatorTest {
+    private static final int EMPLOYEES = 3_000;
+    private static final int SHIFT_ROWS = 12_000;
+
+    private final HeadcountAggregator aggregator = new HeadcountAggregator();
+
+    @Test
+    void countsDistinctEmployeesPerSlotAndSkill() {
+        Map<Long, PartTimeEmployee> employees = new HashMap<>();
+        employees.put(1L, employee(1L, PartTimeEmployee.SkillLevel.LEADER));
+        employees.put(2L, employee(2L, PartTimeEmployee.SkillLevel.GENERAL));
+        employees.put(3L, employee(3L, PartTimeEmployee.SkillLevel.NEWCOMER));
+        employees.put(4L, employee(4L, null));
+        List<PreferredShift> shifts = List.of(
+                shift(1L, PreferredShift.TimeSlot.AM),
+                shift(1L, PreferredShift.TimeSlot.PM),
+                shift(1L, PreferredShift.TimeSlot.AM),
+                shift(2L, PreferredShift.TimeSlot.PM),
+                shift(3L, PreferredShift.TimeSlot.AM),
+                shift(4L, PreferredShift.TimeSlot.AM),
+                shift(99L, PreferredShift.TimeSlot.AM),
+                shift(null, PreferredShift.TimeSlot.PM));
+
+        Headcount headcount = aggregator.aggregate(shifts, employees);
+
+        assertEquals(3, headcount.getAmTotal());
+        assertEquals(2, headcount.getPmTotal());
+        assertEquals(1, headcount.getLeader());
+        assertEquals(1, headcount.getGeneral());
+        assertEquals(1, headcount.getNewcomer());
+    }
+
+    @Test
+    void matchesStreamBasedCountsOnLargeInput() {
+        Map<Long, PartTimeEmployee> employees = employees(EMPLOYEES);
+        List<PreferredShift> shifts = shifts(SHIFT_ROWS, EMPLOYEES);
+
+        assertEquals(streamCounts(shifts, employees), aggregator.aggregate(shifts, employees).toMap());
+    }
+
+    @Test
+    void compactRosterCountsMatchEntityCounts() {
+        Map<Long, PartTimeEmployee> employees = employees(EMPLOYEES);
+        employees.put(EMPLOYEES + 1L, employee(EMPLOYEES + 1L, null));
+        List<PreferredShift> shifts = shifts(SHIFT_ROWS, EMPLOYEES + 10);
+        CompactRoster roster = CompactRoster.of(employees, shifts);
+
+        assertEquals(aggregator.aggregate(shifts, employees).toMap(),
+                aggregator.aggregate(roster, PreferredShift.DayOfWeek.MONDAY).toMap());
+        assertEquals(0, aggregator.aggregate(roster, PreferredShift.DayOfWeek.TUESDAY).getAmTotal());
+    }
+
+    // 置き換え前の ShiftController の集計（スキル比較は enum で行う）
+    private static Map<String, Long> streamCounts(List<PreferredShift> preferredShifts,
+            Map<Long, PartTimeEmployee> employees) {
+        Map<String, Long> employeeCounts = new HashMap<>();
+        employeeCounts.put("amTotal", preferredShifts.stream()
+                .filter(shift -> shift.getTimeSlot() == PreferredShift.TimeSlot.AM)
+                .map(PreferredShift::getEmployeeId)
+                .filter(employees::containsKey)
+                .distinct()
+                .count());
+        employeeCounts.put("pmTotal", preferredShifts.stream()
+                .filter(shift -> shift.getTimeSlot() == PreferredShift.TimeSlot.PM)
+                .map(PreferredShift::getEmployeeId)
+                .filter(employees::containsKey)
+                .distinct()
+                .count());
+        employeeCounts.put("leader", preferredShifts.stream()
+                .map(shift -> employees.get(shift.getEmployeeId()))
+                .filter(employee -> employee != null && employee.getSkillLevel() == PartTimeEmployee.SkillLevel.LEADER)
+                .distinct()
+                .count());
+        employeeCounts.put("general", preferredShifts.stream()
+                .map(shift -> employees.get(shift.getEmployeeId()))
+                .filter(employee -> employee != null && employee.getSkillLevel() == PartTimeEmployee.SkillLevel.GENERAL)
+                .distinct()
+                .count());
+        employeeCounts.put("newcomer", preferredShifts.stream()
+                .map(shift -> employees.get(shift.getEmployeeId()))
+                .filter(employee -> employee != null && employee.getSkillLevel() == PartTimeEmployee.SkillLevel.NEWCOMER)
+                .distinct()
+                .count());
+        return employeeCounts;
+    }
+
+    private static Map<Long, PartTimeEmployee> employees(int count) {
+        PartTimeEmployee.SkillLevel[] skills = PartTimeEmployee.SkillLevel.values();
+        Map<Long, PartTimeEmployee> employees = new HashMap<>();
+        for (long id = 1; id <= count; id++) {
+            employees.put(id, employee(id, skills[(int) (id % skills.length)]));
+        }
+        return employees;
+    }
+
+    private static List<PreferredShift> shifts(int rows, int employeeCount) {
+        Random random = new Random(42);
+        PreferredShift.TimeSlot[] slots = PreferredShift.TimeSlot.values();
+        List<PreferredShift> shifts = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            shifts.add(shift((long) random.nextInt(employeeCount) + 1, slots[random.nextInt(slots.length)]));
+        }
+        return shifts;
+    }
+
+    private static PartTimeEmployee employee(Long id, PartTimeEmployee.SkillLevel skillLevel) {
+        PartTimeEmployee employee = new PartTimeEmployee();
+        employee.setId(id);
+        employee.setSkillLevel(skillLevel);
+        return employee;
+    }
+
+    private static PreferredShift shift(Long employeeId, PreferredShift.TimeSlot timeSlot) {
+        PreferredShift shift = new PreferredShift();
+        shift.setEmployeeId(employeeId);
+        shift.setDayOfWeek(PreferredShift.DayOfWeek.MONDAY);
+        shift.setTimeSlot(timeSlot);
+        return shift;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import com.example.app.dto.EmployeeSearch;
+import com.example.app.dto.EmployeeSlice;
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.repository.PartTimeEmployeeRepository;
+
+class PartTimeEmployeeServiceImplTest {
+    private final PartTimeEmployeeRepository repository = mock(PartTimeEmployeeRepository.class);
+    private final RosterSnapshotService rosterSnapshotService = mock(RosterSnapshotService.class);
+    private final PartTimeEmployeeServiceImpl service = new PartTimeEmployeeServiceImpl(repository,
+            mock(PreferredShiftService.class), rosterSnapshotService, mock(AvailabilityIndex.class));
+
+    @Test
+    void readsOneExtraRowToDetectNextPage() {
+        EmployeeSearch search = new EmployeeSearch();
+        when(repository.findPageAfter(20L, search, Limit.of(4))).thenReturn(employees(21, 22, 23, 24));
+
+        EmployeeSlice slice = service.findSlice(search, 20L, null, 3);
+
+        assertEquals(List.of(21L, 22L, 23L), ids(slice));
+        assertTrue(slice.isHasPrevious());
+        assertTrue(slice.isHasNext());
+        assertEquals(23L, slice.getLastId());
+    }
+
+    @Test
+    void previousPageIsReturnedInAscendingOrder() {
+        EmployeeSearch search = new EmployeeSearch();
+        when(repository.findPageBefore(21L, search, Limit.of(4))).thenReturn(employees(20, 19, 18));
+        when(repository.existsFrom(21L, search)).thenReturn(true);
+
+        EmployeeSlice slice = service.findSlice(search, null, 21L, 3);
+
+        assertEquals(List.of(18L, 19L, 20L), ids(slice));
+        assertFalse(slice.isHasPrevious());
+        assertTrue(slice.isHasNext());
+    }
+
+    // 元のページの社員がいなくなっていれば「次へ」は出さない
+    @Test
+    void previousPageHasNoNextWhenNothingRemainsAfterIt() {
+        EmployeeSearch search = new EmployeeSearch();
+        when(repository.findPageBefore(21L, search, Limit.of(4))).thenReturn(employees(20, 19, 18, 17));
+
+        EmployeeSlice slice = service.findSlice(search, null, 21L, 3);
+
+        assertEquals(List.of(18L, 19L, 20L), ids(slice));
+        assertTrue(slice.isHasPrevious());
+        assertFalse(slice.isHasNext());
+    }
+
+    @Test
+    void escapesLikeWildcardsInNamePrefix() {
+        EmployeeSearch search = new EmployeeSearch();
+        search.setName(" 山_田%! ");
+        search.setSkillLevel(PartTimeEmployee.SkillLevel.LEADER);
+        when(repository.findPageAfter(0L, search, Limit.of(11))).thenReturn(employees(5));
+
+        EmployeeSlice slice = service.findSlice(search, null, null, 10);
+
+        assertEquals("山!_田!%!!%", search.getNamePrefixPattern());
+        assertFalse(search.isHiraganaName());
+        assertEquals(List.of(5L), ids(slice));
+        assertFalse(slice.isHasPrevious());
+        assertFalse(slice.isHasNext());
+    }
+
+    @Test
+    void countIsCachedUntilRosterChanges() {
+        EmployeeSearch search = new EmployeeSearch();
+        when(repository.countBySearch(search)).thenReturn(100_000L, 100_001L);
+        when(rosterSnapshotService.getVersion()).thenReturn(1L);
+
+        assertEquals(100_000L, service.count(search));
+        assertEquals(100_000L, service.count(search));
+        verify(repository, times(1)).countBySearch(search);
+
+        when(rosterSnapshotService.getVersion()).thenReturn(2L);
+        assertEquals(100_001L, service.count(search));
+    }
+
+    private static List<PartTimeEmployee> employees(long... ids) {
+        return LongStream.of(ids).mapToObj(id -> {
+            PartTimeEmployee employee = new PartTimeEmployee();
+            employee.setId(id);
+            return employee;
+        }).toList();
+    }
+
+    private static List<Long> ids(EmployeeSlice slice) {
+        return slice.getContent().stream().map(PartTimeEmployee::getId).toList();
+    }
+}
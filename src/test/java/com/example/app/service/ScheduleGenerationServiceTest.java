@@ -0,0 +1,119 @@
+package com.example.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.app.dto.ShiftAssignmentDto;
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+
+class ScheduleGenerationServiceTest {
+    private static final LocalDate MONDAY = LocalDate.of(2025, 6, 2);
+
+    private final ScheduleGenerationService service = new ScheduleGenerationService(null, null, null, null, null, 62, 2);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void mapsSundayToNoPreferredDay() {
+        assertEquals(PreferredShift.DayOfWeek.MONDAY, ScheduleGenerationService.dayOf(MONDAY));
+        assertNull(ScheduleGenerationService.dayOf(MONDAY.plusDays(6)));
+    }
+
+    // 上限に達した社員は、同じ時間帯を希望する同じスキルの社員で埋め直す
+    @Test
+    void replacesEmployeesOverTheDayLimitWithSameSkill() {
+        PartTimeEmployee leader = employee(1L, PartTimeEmployee.SkillLevel.LEADER);
+        PartTimeEmployee busy = employee(2L, PartTimeEmployee.SkillLevel.GENERAL);
+        PartTimeEmployee spare = employee(3L, PartTimeEmployee.SkillLevel.GENERAL);
+        Map<Long, PartTimeEmployee> employees = employeesOf(leader, busy, spare);
+
+        Map<LocalDate, Map<Long, ShiftAssignmentDto>> plans = new TreeMap<>();
+        for (int d = 0; d < 3; d++) {
+            plans.put(MONDAY.plusDays(d), planOf(amAssignment(leader, busy)));
+        }
+        int[] reconciled = service.enforceMaxDays(plans, CompactRoster.of(employees, amShifts(1L, 2L, 3L)), employees, 2);
+
+        // 3日目: リーダーと busy が上限。リーダーの代わりはおらず、busy は spare で埋め直す
+        assertArrayEquals(new int[] {2, 1}, reconciled);
+        ShiftAssignmentDto third = plans.get(MONDAY.plusDays(2)).get(1L);
+        assertEquals(List.of(spare), third.getAmEmployees());
+        assertTrue(third.getWarnings().get(0).contains(leader.getNameKanji()));
+    }
+
+    @Test
+    void neverBackfillsWithNewcomersForOtherSkills() {
+        PartTimeEmployee busy = employee(1L, PartTimeEmployee.SkillLevel.GENERAL);
+        PartTimeEmployee newcomer = employee(2L, PartTimeEmployee.SkillLevel.NEWCOMER);
+        Map<LocalDate, Map<Long, ShiftAssignmentDto>> plans = new TreeMap<>();
+        plans.put(MONDAY, planOf(amAssignment(busy)));
+        plans.put(MONDAY.plusDays(1), planOf(amAssignment(busy)));
+
+        Map<Long, PartTimeEmployee> employees = employeesOf(busy, newcomer);
+        int[] reconciled = service.enforceMaxDays(plans, CompactRoster.of(employees, amShifts(1L, 2L)), employees, 1);
+
+        assertArrayEquals(new int[] {1, 0}, reconciled);
+        assertTrue(plans.get(MONDAY.plusDays(1)).get(1L).getAmEmployees().isEmpty());
+    }
+
+    private static PartTimeEmployee employee(Long id, PartTimeEmployee.SkillLevel skillLevel) {
+        PartTimeEmployee employee = new PartTimeEmployee();
+        employee.setId(id);
+        employee.setNameKanji("社員" + id);
+        employee.setSkillLevel(skillLevel);
+        return employee;
+    }
+
+    private static Map<Long, PartTimeEmployee> employeesOf(PartTimeEmployee... employees) {
+        Map<Long, PartTimeEmployee> map = new LinkedHashMap<>();
+        for (PartTimeEmployee employee : employees) {
+            map.put(employee.getId(), employee);
+        }
+        return map;
+    }
+
+    private static ShiftAssignmentDto amAssignment(PartTimeEmployee... seated) {
+        ShiftAssignmentDto dto = new ShiftAssignmentDto();
+        dto.setWorkplaceId(1L);
+        dto.setAmCount(seated.length);
+        dto.setAmEmployees(new ArrayList<>(List.of(seated)));
+        dto.setPmEmployees(new ArrayList<>());
+        return dto;
+    }
+
+    private static Map<Long, ShiftAssignmentDto> planOf(ShiftAssignmentDto dto) {
+        Map<Long, ShiftAssignmentDto> plan = new LinkedHashMap<>();
+        plan.put(dto.getWorkplaceId(), dto);
+        return plan;
+    }
+
+    // 平日すべてに同じ AM 希望を入れる
+    private static List<PreferredShift> amShifts(Long... employeeIds) {
+        List<PreferredShift> shifts = new ArrayList<>();
+        for (PreferredShift.DayOfWeek day : PreferredShift.DayOfWeek.values()) {
+            for (Long employeeId : employeeIds) {
+                PreferredShift shift = new PreferredShift();
+                shift.setEmployeeId(employeeId);
+                shift.setDayOfWeek(day);
+                shift.setTimeSlot(PreferredShift.TimeSlot.AM);
+                shifts.add(shift);
+            }
+        }
+        return shifts;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ShiftAssignmentEngineTest {
+    private static final byte L = ShiftAssignmentEngine.LEADER;
+    private static final byte G = ShiftAssignmentEngine.GENERAL;
+    private static final byte N = ShiftAssignmentEngine.NEWCOMER;
+
+    private final ShiftAssignmentEngine engine = new ShiftAssignmentEngine(0.5);
+
+    @Test
+    void placesOneLeaderPerWorkplaceFirst() {
+        byte[] skills = {G, G, G, L, L};
+        int[][] seats = engine.solve(new int[] {2, 2}, new int[] {0, 1, 2, 3, 4}, skills);
+
+        assertEquals(2, seats[0].length);
+        assertEquals(2, seats[1].length);
+        assertEquals(1, countSkill(seats[0], skills, L));
+        assertEquals(1, countSkill(seats[1], skills, L));
+    }
+
+    // 新人を先に上限まで配らないと、一般だけでは埋まらない席が残る
+    @Test
+    void usesNewcomersOnlyWithinCapAndOnlyWhenNeeded() {
+        byte[] skills = {G, G, N, N, N, N};
+        int[][] seats = engine.solve(new int[] {2, 2}, new int[] {0, 1, 2, 3, 4, 5}, skills);
+
+        assertEquals(2, seats[0].length);
+        assertEquals(2, seats[1].length);
+        assertEquals(1, countSkill(seats[0], skills, N));
+        assertEquals(1, countSkill(seats[1], skills, N));
+
+        int[][] surplus = engine.solve(new int[] {2}, new int[] {0, 1, 2, 3}, skills);
+        assertEquals(0, countSkill(surplus[0], skills, N));
+    }
+
+    @Test
+    void leavesSeatsOpenWhenCandidatesRunOut() {
+        byte[] skills = {N, N, N};
+        int[][] seats = engine.solve(new int[] {1, 4, 0}, new int[] {0, 1, 2}, skills);
+
+        assertEquals(0, seats[0].length);
+        assertEquals(2, seats[1].length);
+        assertEquals(0, seats[2].length);
+    }
+
+    // 500 人 × 50 職場で制約を満たし、同じ社員を二重に割り当てないこと（時間は ShiftAssignmentBenchmark で測る）
+    @Test
+    void solvesFiveHundredEmployeesAcrossFiftyWorkplaces() {
+        Random random = new Random(7);
+        byte[] skills = new byte[500];
+        int[] candidates = new int[skills.length];
+        for (int i = 0; i < skills.length; i++) {
+            int r = random.nextInt(10);
+            skills[i] = r < 2 ? L : r < 7 ? G : N;
+            candidates[i] = i;
+        }
+        int[] demand = new int[50];
+        int totalDemand = 0;
+        for (int w = 0; w < demand.length; w++) {
+            demand[w] = 2 + random.nextInt(12);
+            totalDemand += demand[w];
+        }
+
+        int[][] seats = engine.solve(demand, candidates, skills);
+
+        BitSet used = new BitSet();
+        int filled = 0;
+        for (int w = 0; w < demand.length; w++) {
+            assertTrue(seats[w].length <= demand[w]);
+            // リーダーは職場数より多いので、どの職場にも1人はいる
+            assertTrue(countSkill(seats[w], skills, L) >= 1, "no leader in workplace " + w);
+            assertTrue(countSkill(seats[w], skills, N) <= engine.newcomerCap(demand[w]));
+            for (int employee : seats[w]) {
+                assertTrue(!used.get(employee), "employee " + employee + " assigned twice");
+                used.set(employee);
+            }
+            filled += seats[w].length;
+        }
+        assertEquals(Math.min(totalDemand, skills.length), filled);
+    }
+
+    @Test
+    void prefersLeastRecentlyWorkedCandidates() {
+        byte[] skills = {G, G, G, G};
+        int[] workload = {6, 0, 2, 0};
+
+        int[] ordered = ShiftAssignmentEngine.byWorkload(new int[] {0, 1, 2, 3}, workload);
+
+        // 同じコマ数なら元の順（ID 順）
+        assertArrayEquals(new int[] {1, 3, 2, 0}, ordered);
+        assertArrayEquals(new int[][] {{1, 3}}, engine.solve(new int[] {2}, ordered, skills));
+        // 勤務実績がなければ並べ替えず、同じ配列をそのまま返す
+        int[] unchanged = {2, 0};
+        assertSame(unchanged, ShiftAssignmentEngine.byWorkload(unchanged, null));
+    }
+
+    private static int countSkill(int[] seats, byte[] skills, byte skill) {
+        int count = 0;
+        for (int employee : seats) {
+            if (skills[employee] == skill) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
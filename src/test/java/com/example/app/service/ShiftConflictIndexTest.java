@@ -0,0 +1,72 @@
+package com.example.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+import com.example.app.entity.ShiftAssignment;
+import com.example.app.entity.Workplace;
+
+class ShiftConflictIndexTest {
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 2);
+
+    @Test
+    void detectsSameEmployeeInTwoWorkplacesForOneSlot() {
+        ShiftAssignment first = row(DAY, PreferredShift.TimeSlot.AM, 1L, "選果", 7L, "山田");
+        ShiftAssignment second = row(DAY, PreferredShift.TimeSlot.AM, 2L, "第1ハウス", 7L, "山田");
+
+        ShiftConflictIndex index = ShiftConflictIndex.of(List.of(first,
+                row(DAY, PreferredShift.TimeSlot.PM, 2L, "第1ハウス", 7L, "山田"),
+                row(DAY.plusDays(1), PreferredShift.TimeSlot.AM, 2L, "第1ハウス", 7L, "山田"),
+                second));
+
+        assertTrue(index.hasConflicts());
+        assertEquals(1, index.getConflicts().size());
+        assertSame(first, index.getConflicts().get(0).getFirst());
+        assertSame(second, index.getConflicts().get(0).getSecond());
+        assertEquals("2025-06-02 AM: 山田が選果と第1ハウスに重複して割り当てられています",
+                index.getConflicts().get(0).getMessage());
+        assertSame(first, index.bookingOf(DAY, PreferredShift.TimeSlot.AM, 7L));
+        assertTrue(index.isBooked(DAY.plusDays(1), PreferredShift.TimeSlot.AM, 7L));
+        assertFalse(index.isBooked(DAY.plusDays(1), PreferredShift.TimeSlot.PM, 7L));
+        ShiftConflictException e = assertThrows(ShiftConflictException.class, index::requireNoConflicts);
+        assertEquals(1, e.getConflicts().size());
+    }
+
+    @Test
+    void ignoresRowsWithoutEmployee() {
+        ShiftConflictIndex index = ShiftConflictIndex.of(List.of(
+                row(DAY, PreferredShift.TimeSlot.AM, 1L, "選果", null, null),
+                row(DAY, PreferredShift.TimeSlot.AM, 2L, "第1ハウス", null, null)));
+
+        assertFalse(index.hasConflicts());
+        index.requireNoConflicts();
+    }
+
+    private static ShiftAssignment row(LocalDate workDate, PreferredShift.TimeSlot timeSlot,
+            Long workplaceId, String workplaceName, Long employeeId, String employeeName) {
+        Workplace workplace = new Workplace();
+        workplace.setId(workplaceId);
+        workplace.setName(workplaceName);
+        ShiftAssignment row = new ShiftAssignment();
+        row.setWorkDate(workDate);
+        row.setTimeSlot(timeSlot);
+        row.setWorkplace(workplace);
+        if (employeeId != null) {
+            PartTimeEmployee employee = new PartTimeEmployee();
+            employee.setId(employeeId);
+            employee.setNameKanji(employeeName);
+            row.setEmployee(employee);
+        }
+        return row;
+    }
+}
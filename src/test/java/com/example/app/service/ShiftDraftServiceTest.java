@@ -0,0 +1,142 @@
+package com.example.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.app.dto.ShiftAssignmentDto;
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+import com.example.app.entity.Workplace;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ShiftDraftServiceTest {
+    private static final LocalDate MONDAY = LocalDate.of(2025, 6, 2);
+    private static final PreferredShift.TimeSlot AM = PreferredShift.TimeSlot.AM;
+    private static final PreferredShift.TimeSlot PM = PreferredShift.TimeSlot.PM;
+
+    private final ShiftQueryService shiftQueryService = mock(ShiftQueryService.class);
+    private final ShiftDraftService service = new ShiftDraftService(shiftQueryService,
+            new ShiftAssignmentService(0.5, new SimpleMeterRegistry()), Duration.ofHours(2));
+
+    @Test
+    void scenarioResolvesOnlyTheChangedSlotAndSharesTheRest() {
+        DayAvailability availability = availability();
+        when(shiftQueryService.availability(MONDAY)).thenReturn(availability);
+        // 社員1は直近の勤務が多いので後回し
+        when(shiftQueryService.workload(availability)).thenReturn(new int[] {5, 0, 0, 0});
+
+        ShiftDraft draft = service.create(MONDAY, form(1, 1));
+        ShiftDraft.Scenario base = draft.getScenarios().get(0);
+        ShiftDraft updated = service.addScenario(draft.getId(), 0, 10L, AM, 3);
+        ShiftDraft.Scenario scenario = updated.getScenarios().get(1);
+
+        assertEquals("案2: 選果 AM 1→3名", scenario.getName());
+        assertEquals(1, base.demand(AM, 0));
+        assertEquals(3, scenario.demand(AM, 0));
+        assertNotSame(base.seats()[AM.ordinal()], scenario.seats()[AM.ordinal()]);
+        assertSame(base.seats()[PM.ordinal()], scenario.seats()[PM.ordinal()]);
+        assertSame(base.demand()[PM.ordinal()], scenario.demand()[PM.ordinal()]);
+
+        Map<Long, ShiftAssignmentDto> before = service.assignments(updated, 0);
+        Map<Long, ShiftAssignmentDto> after = service.assignments(updated, 1);
+        assertEquals(List.of(2L), ids(before.get(10L).getAmEmployees()));
+        assertEquals(List.of(2L, 3L, 4L), ids(after.get(10L).getAmEmployees()));
+        assertEquals(ids(before.get(10L).getPmEmployees()), ids(after.get(10L).getPmEmployees()));
+        // 案を足しても出勤希望・勤務実績は読み直さない
+        verify(shiftQueryService, times(1)).availability(any());
+        assertSame(updated, service.get(draft.getId()));
+    }
+
+    @Test
+    void rejectsUnknownDraftAndWorkplace() {
+        DayAvailability availability = availability();
+        when(shiftQueryService.availability(MONDAY)).thenReturn(availability);
+        ShiftDraft draft = service.create(MONDAY, form(1, 1));
+
+        assertTrue(service.find("missing").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> service.get("missing"));
+        assertThrows(IllegalArgumentException.class, () -> service.addScenario(draft.getId(), 0, 99L, AM, 1));
+        assertThrows(IllegalArgumentException.class, () -> service.addScenario(draft.getId(), 5, 10L, AM, 1));
+        assertEquals(1, service.get(draft.getId()).getScenarios().size());
+    }
+
+    // 作成後に名簿・出勤希望が変わった下書きは保存できない
+    @Test
+    void draftIsStaleOnceAvailabilityChanges() {
+        DayAvailability availability = availability();
+        when(shiftQueryService.availability(MONDAY)).thenReturn(availability);
+        ShiftDraft draft = service.create(MONDAY, form(1, 1));
+
+        when(shiftQueryService.isCurrent(availability)).thenReturn(true);
+        assertTrue(service.isCurrent(draft));
+        when(shiftQueryService.isCurrent(availability)).thenReturn(false);
+        assertFalse(service.isCurrent(draft));
+    }
+
+    private static DayAvailability availability() {
+        List<PartTimeEmployee> employees = List.of(
+                employee(1L, PartTimeEmployee.SkillLevel.LEADER),
+                employee(2L, PartTimeEmployee.SkillLevel.LEADER),
+                employee(3L, PartTimeEmployee.SkillLevel.GENERAL),
+                employee(4L, PartTimeEmployee.SkillLevel.GENERAL));
+        Workplace workplace = new Workplace();
+        workplace.setId(10L);
+        workplace.setName("選果");
+        RosterSnapshot roster = new RosterSnapshot(1, Instant.EPOCH, employees, List.of(workplace), List.of());
+        List<PreferredShift> shifts = new ArrayList<>();
+        for (PartTimeEmployee employee : employees) {
+            shifts.add(shift(employee.getId(), AM));
+            shifts.add(shift(employee.getId(), PM));
+        }
+        CompactRoster compact = CompactRoster.of(roster.getEmployees(), shifts);
+        return new DayAvailability(MONDAY, PreferredShift.DayOfWeek.MONDAY, roster, compact, Headcount.EMPTY);
+    }
+
+    private static Map<Long, Map<String, Object>> form(int am, int pm) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("am_count", am);
+        data.put("pm_count", pm);
+        data.put("tasks", new ArrayList<String>());
+        data.put("taskIds", new ArrayList<Long>());
+        return Map.of(10L, data);
+    }
+
+    private static PartTimeEmployee employee(Long id, PartTimeEmployee.SkillLevel skillLevel) {
+        PartTimeEmployee employee = new PartTimeEmployee();
+        employee.setId(id);
+        employee.setSkillLevel(skillLevel);
+        return employee;
+    }
+
+    private static PreferredShift shift(Long employeeId, PreferredShift.TimeSlot slot) {
+        PreferredShift shift = new PreferredShift();
+        shift.setEmployeeId(employeeId);
+        shift.setDayOfWeek(PreferredShift.DayOfWeek.MONDAY);
+        shift.setTimeSlot(slot);
+        return shift;
+    }
+
+    private static List<Long> ids(List<PartTimeEmployee> employees) {
+        return employees.stream().map(PartTimeEmployee::getId).toList();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+import com.example.app.entity.ShiftAssignment;
+import com.example.app.entity.Task;
+import com.example.app.entity.Workplace;
+import com.example.app.repository.ShiftAssignmentRepository;
+
+import jakarta.persistence.EntityManager;
+
+class ShiftExportServiceTest {
+    private static final LocalDate FROM = LocalDate.of(2025, 6, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 6, 30);
+
+    private final ShiftAssignmentRepository repository = mock(ShiftAssignmentRepository.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final ShiftExportService service = new ShiftExportService(repository, entityManager);
+
+    @Test
+    void writesHeaderRowsAndQuotesSpecialCharacters() throws Exception {
+        when(repository.streamByWorkDateBetween(FROM, TO)).thenReturn(Stream.of(
+                row(1L, "収穫", "山田 \"リーダー\", 太郎"),
+                row(2L, null, "佐藤")));
+        StringWriter out = new StringWriter();
+
+        int count = service.writeCsv(FROM, TO, true, out);
+
+        assertEquals(2, count);
+        assertEquals("\uFEFF勤務日,時間帯,職場ID,職場名,タスクID,タスク名,社員ID,社員名,必要人数\r\n"
+                + "2025-06-02,AM,3,選果,7,収穫,1,\"山田 \"\"リーダー\"\", 太郎\",2\r\n"
+                + "2025-06-02,AM,3,選果,,,2,佐藤,2\r\n", out.toString());
+        verify(entityManager, times(2)).detach(any());
+    }
+
+    @Test
+    void omitsBomForPlainCsvAndRejectsReversedRange() throws Exception {
+        when(repository.streamByWorkDateBetween(FROM, TO)).thenReturn(Stream.empty());
+        StringWriter out = new StringWriter();
+
+        service.writeCsv(FROM, TO, false, out);
+
+        assertTrue(out.toString().startsWith("勤務日,"));
+        assertThrows(IllegalArgumentException.class, () -> service.writeCsv(TO, FROM, false, new StringWriter()));
+    }
+
+    // 1行読むごとに書き出し、読み込んだ行を溜め込まないこと
+    @Test
+    void writesEachRowBeforeReadingTheNext() throws Exception {
+        AtomicInteger read = new AtomicInteger();
+        AtomicInteger maxBacklog = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        when(repository.streamByWorkDateBetween(FROM, TO)).thenReturn(Stream.generate(() -> {
+            maxBacklog.accumulateAndGet(read.incrementAndGet() - written.get(), Math::max);
+            return row((long) read.get(), "収穫", "社員");
+        }).limit(200_000));
+        Writer lineCounter = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                for (int i = offset; i < offset + length; i++) {
+                    if (buffer[i] == '\n') {
+                        written.incrementAndGet();
+                    }
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        int count = service.writeCsv(FROM, TO, false, lineCounter);
+
+        assertEquals(200_000, count);
+        // ヘッダーの1行分があるので、未書き出しの行は常に1行以内
+        assertTrue(maxBacklog.get() <= 1, "backlog: " + maxBacklog.get());
+    }
+
+    private static ShiftAssignment row(Long employeeId, String taskName, String employeeName) {
+        Workplace workplace = new Workplace();
+        workplace.setId(3L);
+        workplace.setName("選果");
+        PartTimeEmployee employee = new PartTimeEmployee();
+        employee.setId(employeeId);
+        employee.setNameKanji(employeeName);
+        ShiftAssignment row = new ShiftAssignment();
+        row.setWorkDate(LocalDate.of(2025, 6, 2));
+        row.setTimeSlot(PreferredShift.TimeSlot.AM);
+        row.setWorkplace(workplace);
+        if (taskName != null) {
+            Task task = new Task();
+            task.setId(7L);
+            task.setName(taskName);
+            row.setTask(task);
+        }
+        row.setEmployee(employee);
+        row.setRequiredCount(2);
+        return row;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.entity.PreferredShift;
+import com.example.app.repository.PartTimeEmployeeRepository;
+import com.example.app.repository.PreferredShiftRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ShiftServiceTest {
+    // 2025-06-02 は月曜日
+    private static final String MONDAY = "2025-06-02";
+
+    @Mock
+    private PartTimeEmployeeRepository employeeRepository;
+
+    @Mock
+    private PreferredShiftRepository preferredShiftRepository;
+
+    @Spy
+    private HeadcountAggregator headcountAggregator = new HeadcountAggregator();
+
+    @InjectMocks
+    private ShiftService shiftService;
+
+    @Test
+    void returnsOnlyEmployeesWithPreferredShifts() {
+        when(employeeRepository.findAll()).thenReturn(List.of(
+                employee(1L, PartTimeEmployee.SkillLevel.LEADER),
+                employee(2L, PartTimeEmployee.SkillLevel.GENERAL),
+                employee(3L, PartTimeEmployee.SkillLevel.NEWCOMER)));
+        when(preferredShiftRepository.findByDayOfWeek(PreferredShift.DayOfWeek.MONDAY)).thenReturn(List.of(
+                shift(1L, PreferredShift.TimeSlot.AM),
+                shift(1L, PreferredShift.TimeSlot.PM),
+                shift(3L, PreferredShift.TimeSlot.PM),
+                shift(7L, PreferredShift.TimeSlot.AM)));
+
+        Map<String, Object> result = shiftService.getAvailableEmployees(MONDAY);
+
+        List<?> employees = (List<?>) result.get("employees");
+        assertEquals(List.of(1L, 3L), employees.stream().map(e -> ((PartTimeEmployee) e).getId()).toList());
+        assertEquals(4, ((List<?>) result.get("preferredShifts")).size());
+        assertEquals(1L, result.get("leaderCount"));
+        assertEquals(0L, result.get("generalCount"));
+        assertEquals(1L, result.get("newcomerCount"));
+        assertEquals(1L, result.get("totalCountAM"));
+        assertEquals(2L, result.get("totalCountPM"));
+    }
+
+    // 重複登録された希望シフトが多くても社員ごとに1回だけ数え、リポジトリは1回ずつしか呼ばないこと。
+    // 人数を増やしたときの時間は AvailableEmployeesBenchmark で測る
+    @Test
+    void countsEachEmployeeOnceWithOneQueryPerRepository() {
+        int employeeCount = 5_000;
+        int shiftCount = 30_000;
+        PartTimeEmployee.SkillLevel[] skills = PartTimeEmployee.SkillLevel.values();
+        List<PartTimeEmployee> employees = new ArrayList<>(employeeCount);
+        for (long id = 1; id <= employeeCount; id++) {
+            employees.add(employee(id, skills[(int) (id % skills.length)]));
+        }
+        // 偶数IDの社員だけが希望を出し、1人あたり AM/PM を3回ずつ重複登録する
+        List<PreferredShift> shifts = new ArrayList<>(shiftCount);
+        for (int i = 0; i < shiftCount; i++) {
+            long id = 2L * ((i / 2) % (employeeCount / 2) + 1);
+            shifts.add(shift(id, i % 2 == 0 ? PreferredShift.TimeSlot.AM : PreferredShift.TimeSlot.PM));
+        }
+        when(employeeRepository.findAll()).thenReturn(employees);
+        when(preferredShiftRepository.findByDayOfWeek(PreferredShift.DayOfWeek.MONDAY)).thenReturn(shifts);
+
+        Map<String, Object> result = shiftService.getAvailableEmployees(MONDAY);
+
+        assertEquals(employeeCount / 2, ((List<?>) result.get("employees")).size());
+        assertEquals((long) employeeCount / 2, result.get("totalCountAM"));
+        assertEquals((long) employeeCount / 2, result.get("totalCountPM"));
+        long counted = (long) result.get("leaderCount") + (long) result.get("generalCount")
+                + (long) result.get("newcomerCount");
+        assertEquals((long) employeeCount / 2, counted);
+        verify(employeeRepository, times(1)).findAll();
+        verify(preferredShiftRepository, times(1)).findByDayOfWeek(PreferredShift.DayOfWeek.MONDAY);
+    }
+
+    private static PartTimeEmployee employee(Long id, PartTimeEmployee.SkillLevel skillLevel) {
+        PartTimeEmployee employee = new PartTimeEmployee();
+        employee.setId(id);
+        employee.setSkillLevel(skillLevel);
+        return employee;
+    }
+
+    private static PreferredShift shift(Long employeeId, PreferredShift.TimeSlot timeSlot) {
+        PreferredShift shift = new PreferredShift();
+        shift.setEmployeeId(employeeId);
+        shift.setDayOfWeek(PreferredShift.DayOfWeek.MONDAY);
+        shift.setTimeSlot(timeSlot);
+        return shift;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.app.dto.DailyWorkload;
+import com.example.app.entity.PartTimeEmployee;
+import com.example.app.repository.ShiftAssignmentRepository;
+
+class WorkloadHistoryTest {
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 30);
+
+    private final ShiftAssignmentRepository repository = mock(ShiftAssignmentRepository.class);
+    private final WorkloadHistory history = new WorkloadHistory(repository, mock(PlatformTransactionManager.class), 1);
+    private final CompactRoster roster = roster(10L, 20L, 30L);
+
+    @Test
+    void sumsSlotsOverWindowAndLoadsOnlyNewDays() {
+        when(repository.countSlotsByWorkDateBetween(DAY.minusDays(7), DAY.minusDays(1))).thenReturn(List.of(
+                new DailyWorkload(DAY.minusDays(7), 10L, 2),
+                new DailyWorkload(DAY.minusDays(1), 10L, 1),
+                new DailyWorkload(DAY.minusDays(1), 30L, 2),
+                // 名簿にいない社員は数えない
+                new DailyWorkload(DAY.minusDays(1), 99L, 2)));
+        when(repository.countSlotsByWorkDateBetween(DAY, DAY)).thenReturn(List.of(new DailyWorkload(DAY, 20L, 1)));
+
+        int[] slots = history.slotsBefore(DAY, roster);
+        assertArrayEquals(new int[] {3, 0, 2}, slots);
+        assertSame(slots, history.slotsBefore(DAY, roster));
+
+        // 窓が1日進むと、読むのは新しく入った1日だけ（出ていった日の分は引かれる）
+        assertArrayEquals(new int[] {1, 1, 2}, history.slotsBefore(DAY.plusDays(1), roster));
+        verify(repository, times(2)).countSlotsByWorkDateBetween(any(), any());
+    }
+
+    @Test
+    void rereadsDaysWhosePlanWasSaved() {
+        when(repository.countSlotsByWorkDateBetween(DAY.minusDays(7), DAY.minusDays(1))).thenReturn(List.of());
+        when(repository.countSlotsByWorkDateBetween(DAY.minusDays(1), DAY.minusDays(1)))
+                .thenReturn(List.of(new DailyWorkload(DAY.minusDays(1), 20L, 2)));
+        assertArrayEquals(new int[] {0, 0, 0}, history.slotsBefore(DAY, roster));
+
+        history.onPlanSaved(new ShiftPlanSavedEvent(Set.of(DAY.minusDays(1))));
+
+        assertArrayEquals(new int[] {0, 2, 0}, history.slotsBefore(DAY, roster));
+    }
+
+    @Test
+    void disabledWithZeroWeeks() {
+        assertNull(new WorkloadHistory(repository, mock(PlatformTransactionManager.class), 0).slotsBefore(DAY, roster));
+    }
+
+    private static CompactRoster roster(long... ids) {
+        Map<Long, PartTimeEmployee> employees = new LinkedHashMap<>();
+        for (long id : ids) {
+            PartTimeEmployee employee = new PartTimeEmployee();
+            employee.setId(id);
+            employee.setSkillLevel(PartTimeEmployee.SkillLevel.GENERAL);
+            employees.put(id, employee);
+        }
+        return CompactRoster.of(employees, List.of());
+    }
+}
@@ -0,0 +1,42 @@
+package db.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * V3 が既存の重複を消さずに shift_assignment_duplicates へ移してから一意制約を付けることを確かめる。
+ */
+class V3__unique_shift_assignment_per_slotTest {
+
+    @Test
+    void movesDuplicatesToQuarantineTableInsteadOfDeletingThem() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migration-v3;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).target("2").load().migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO workplaces (id, name) VALUES (1, '選果'), (2, '第1ハウス')");
+        jdbcTemplate.update("INSERT INTO part_time_employees (id, name_kanji) VALUES (1, '社員1'), (2, '社員2')");
+        jdbcTemplate.update("INSERT INTO shift_assignments (id, work_date, workplace_id, time_slot, employee_id) VALUES "
+                + "(10, DATE '2025-06-02', 1, 'AM', 1), "
+                + "(11, DATE '2025-06-02', 2, 'AM', 1), "
+                + "(12, DATE '2025-06-02', 2, 'PM', 1), "
+                + "(13, DATE '2025-06-02', 2, 'AM', 2), "
+                + "(14, DATE '2025-06-02', 1, 'AM', NULL), "
+                + "(15, DATE '2025-06-02', 2, 'AM', NULL)");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        assertEquals(List.of(10L, 12L, 13L, 14L, 15L),
+                jdbcTemplate.queryForList("SELECT id FROM shift_assignments ORDER BY id", Long.class));
+        assertEquals(List.of(11L),
+                jdbcTemplate.queryForList("SELECT id FROM shift_assignment_duplicates", Long.class));
+        assertEquals(2L, jdbcTemplate.queryForObject(
+                "SELECT workplace_id FROM shift_assignment_duplicates WHERE id = 11", Long.class));
+    }
+}